@@ -0,0 +1,97 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.SourceDataLine;
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.util.function.Consumer;
+
+/**
+ * Loops a sound file by streaming it through a {@link SourceDataLine} on a daemon thread. Only the line's
+ * small buffer is held in memory and nothing is decoded before {@link #start}, so the file's size does not
+ * affect startup. Volume and mute may be set at any time from any thread; they are applied once the line is open.
+ *
+ * <p>Audio is off when running headless or with {@code -Dmaze.audio=false}.
+ */
+final class BackgroundMusic {
+
+    /** Line buffer length; also bounds how long a volume change takes to be heard. */
+    private static final int BUFFER_MS = 200;
+
+    private final File file;
+    private final Consumer<String> onError;
+    private volatile FloatControl gain;
+    private volatile int percent = 75;
+    private volatile boolean muted;
+    private Thread thread;
+
+    BackgroundMusic(File file, Consumer<String> onError) {
+        this.file = file;
+        this.onError = onError;
+    }
+
+    static boolean enabled() {
+        return !GraphicsEnvironment.isHeadless() && Boolean.parseBoolean(System.getProperty("maze.audio", "true"));
+    }
+
+    void start() {
+        if (thread != null || !enabled()) return;
+        thread = new Thread(this::run, "background-music");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void setVolume(int percent) { this.percent = percent; applyGain(); }
+    void setMuted(boolean muted) { this.muted = muted; applyGain(); }
+    boolean isMuted() { return muted; }
+
+    private void run() {
+        if (!file.exists()) { onError.accept("Audio Missing: " + file.getPath()); return; }
+        SourceDataLine line = null;
+        try {
+            byte[] chunk = null;
+            while (true) {
+                try (AudioInputStream in = pcm(AudioSystem.getAudioInputStream(file))) {
+                    AudioFormat format = in.getFormat();
+                    if (line == null) {
+                        int frames = Math.max(1, (int) (format.getFrameRate() * BUFFER_MS / 1000));
+                        line = AudioSystem.getSourceDataLine(format);
+                        line.open(format, frames * format.getFrameSize());
+                        if (line.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+                            gain = (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN);
+                            applyGain();
+                        }
+                        line.start();
+                        chunk = new byte[Math.max(1, line.getBufferSize() / 4 / format.getFrameSize()) * format.getFrameSize()];
+                    }
+                    long written = 0;
+                    for (int n; (n = in.read(chunk)) > 0; written += n) line.write(chunk, 0, n);
+                    if (written == 0) return;
+                }
+            }
+        } catch (Exception e) {
+            onError.accept("Audio failed: " + e.getMessage());
+        } finally {
+            if (line != null) line.close();
+        }
+    }
+
+    /** Decodes anything the line cannot take directly (e.g. compressed WAV) to signed 16-bit PCM. */
+    private static AudioInputStream pcm(AudioInputStream in) {
+        AudioFormat f = in.getFormat();
+        if (f.getEncoding() == AudioFormat.Encoding.PCM_SIGNED || f.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED) return in;
+        AudioFormat target = new AudioFormat(f.getSampleRate(), 16, f.getChannels(), true, false);
+        return AudioSystem.getAudioInputStream(target, in);
+    }
+
+    /** Same curve as before: 20 log10 of the slider fraction, clamped to the control; 0% or mute is the minimum. */
+    private void applyGain() {
+        FloatControl g = gain;
+        if (g == null) return;
+        int p = percent;
+        if (muted || p == 0) { g.setValue(g.getMinimum()); return; }
+        float dB = (float) (Math.log10(p / 100.0) * 20.0);
+        g.setValue(Math.max(g.getMinimum(), Math.min(g.getMaximum(), dB)));
+    }
+}
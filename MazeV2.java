@@ -1,407 +1,720 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import javax.sound.sampled.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import maze.Algorithm;
+import maze.BatchSolver;
+import maze.FlowField;
+import maze.HeadlessSweep;
+import maze.IncrementalPlanner;
+import maze.LandmarkTable;
+import maze.MazeFile;
+import maze.MazeGenerator;
+import maze.MazeGrid;
+import maze.MazeSolver;
+import maze.RunSummary;
+import maze.SearchTrace;
+import maze.SolveMetrics;
+import maze.SolveResult;
+import maze.SolverMetrics;
 
 public class MazeV2 extends JPanel {
+    private static final long serialVersionUID = 1L;
 
-    private final int ROWS = 21;
-    private final int COLS = 21;
-    private final int CELL_SIZE = 32;
+    private final int ROWS;
+    private final int COLS;
+    /** Current zoom in pixels per cell. */
+    private int cellSize;
     private final int DELAY_SCAN = 10;
     private final int DELAY_PATH = 30;
 
-    private final int TYPE_WALL = 0;
-    private final int TYPE_GRASS = 1;
-    private final int TYPE_MUD = 2;
-    private final int TYPE_WATER = 3;
+    private static final int TYPE_WALL = MazeGrid.TYPE_WALL;
+    private static final int TYPE_GRASS = MazeGrid.TYPE_GRASS;
+    private static final int TYPE_MUD = MazeGrid.TYPE_MUD;
+    private static final int TYPE_WATER = MazeGrid.TYPE_WATER;
 
     private final Color COL_BG_DARK = new Color(30, 30, 35);
     private final Color COL_WALL_BASE = new Color(50, 50, 55);
     private final Color COL_WALL_TOP = new Color(70, 70, 75);
+    private static final Color COL_GRASS = new Color(34, 139, 34);
+    private static final Color COL_MUD = new Color(101, 67, 33);
+    private static final Color COL_WATER = new Color(0, 105, 148);
+    private static final Color COL_GRASS_TUFT = new Color(50, 205, 50, 100);
+    private static final Color COL_WATER_RIPPLE = new Color(135, 206, 250, 80);
+    private static final Color COL_MUD_SPOT = new Color(60, 40, 10, 80);
+    private static final Color COL_VISITED = new Color(255, 255, 255, 40);
+    private static final Color COL_HEAD = new Color(255, 100, 0, 200);
+    private static final Color COL_EXIT = new Color(255, 50, 50);
+    private static final Color COL_SHADOW = new Color(0, 0, 0, 100);
+    private static final Font FONT_MARKER = new Font("Arial", Font.BOLD, 14);
+    private static final BasicStroke STROKE_PATH = new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke STROKE_OUTLINE = new BasicStroke(2);
+    /** Path lines are drawn up to 9px off the cell centre plus a 3px dot, so dirty rectangles are padded by this much. */
+    private static final int PATH_PAD = 13;
+    private static final int LANDMARKS = LandmarkTable.DEFAULT_LANDMARKS;
+    /** Zoom range in pixels per cell. Below {@code DETAIL_CELL} terrain comes from a one-pixel-per-cell image. */
+    private static final int MIN_CELL = 1, MAX_CELL = 64, DETAIL_CELL = 8;
+    /** Cell size the path offsets and cell decorations were laid out for. */
+    private static final int BASE_CELL = 32;
+    /** Largest viewport the frame opens with; bigger mazes scroll. */
+    private static final int VIEW_WIDTH = 1000, VIEW_HEIGHT = 800;
 
     private static final Color COLOR_BFS = new Color(0, 255, 255);
     private static final Color COLOR_DFS = new Color(255, 200, 0);
     private static final Color COLOR_DIJKSTRA = new Color(255, 255, 255);
     private static final Color COLOR_ASTAR = new Color(255, 50, 80);
+    private static final Color COLOR_BI_DIJKSTRA = new Color(180, 130, 255);
+    private static final Color COLOR_BI_ASTAR = new Color(255, 140, 200);
+    private static final Color COLOR_LPA = new Color(140, 255, 120);
+    private static final Color COLOR_CORRIDOR_DIJKSTRA = new Color(255, 230, 140);
+    private static final Color COLOR_CORRIDOR_ASTAR = new Color(255, 160, 60);
+    private static final Color COLOR_HPA = new Color(120, 200, 255);
+    private static final Color COLOR_ALT = new Color(200, 255, 200);
+    private static final Color COLOR_PARALLEL_BFS = new Color(0, 160, 200);
+    private static final Color COLOR_FLOW_FIELD = new Color(230, 120, 255);
+
+    /** Path colour, line offset inside the cell and STATISTICS prefix, keyed by algorithm label. */
+    private static final Map<String, PathStyle> PATH_STYLES = new LinkedHashMap<>();
+    static {
+        PATH_STYLES.put("BFS", new PathStyle(COLOR_BFS, -6, -6, "BFS"));
+        PATH_STYLES.put("DFS", new PathStyle(COLOR_DFS, 6, -6, "DFS"));
+        PATH_STYLES.put("Dijkstra", new PathStyle(COLOR_DIJKSTRA, -6, 6, "Dijk"));
+        PATH_STYLES.put("A*", new PathStyle(COLOR_ASTAR, 6, 6, "A*"));
+        PATH_STYLES.put("Bi-Dijkstra", new PathStyle(COLOR_BI_DIJKSTRA, 0, -9, "BiDijk"));
+        PATH_STYLES.put("Bi-A*", new PathStyle(COLOR_BI_ASTAR, 0, 9, "BiA*"));
+        PATH_STYLES.put("LPA*", new PathStyle(COLOR_LPA, -9, 0, "LPA*"));
+        PATH_STYLES.put("Corridor Dijkstra", new PathStyle(COLOR_CORRIDOR_DIJKSTRA, 9, 0, "CDijk"));
+        PATH_STYLES.put("Corridor A*", new PathStyle(COLOR_CORRIDOR_ASTAR, 0, 0, "CA*"));
+        PATH_STYLES.put("HPA*", new PathStyle(COLOR_HPA, -9, 9, "HPA*"));
+        PATH_STYLES.put("ALT", new PathStyle(COLOR_ALT, 9, -9, "ALT"));
+        PATH_STYLES.put("Parallel BFS", new PathStyle(COLOR_PARALLEL_BFS, 9, 9, "PBFS"));
+        PATH_STYLES.put("Flow field", new PathStyle(COLOR_FLOW_FIELD, -9, -9, "Flow"));
+    }
+    private static final PathStyle DEFAULT_STYLE = new PathStyle(Color.WHITE, 0, 0, "?");
 
-    private int[][] maze;
+    private MazeGrid maze;
+    private long mazeSeed;
+    /** Draws each new maze's seed, so a session started with a fixed seed replays the same sequence of maps. */
+    private final Random seeds;
     private Point startPos = new Point(1, 1);
-    private Point exitPos = new Point(ROWS - 2, COLS - 2);
+    private Point exitPos;
+
+    private final Map<String, int[]> finishedPaths = new LinkedHashMap<>();
+    private volatile RenderState renderState = RenderState.EMPTY;
+    private final TracePlayer player;
+    private final BatchSolver batchSolver = new BatchSolver(null, 4096);
+    private FlowField flowField;
+    private IncrementalPlanner planner;
+    private MazeSolver solver;
+    /** ALT tables for one maze version (grid id plus modCount), built on first ALT use; null until then. */
+    private CompletableFuture<LandmarkTable> landmarks;
+    private long landmarksGridId = -1, landmarksModCount = -1;
+
+    /** One pixel per cell: terrain at 2 bits per pixel, visited cells at 1 bit, both scaled up to the zoom. */
+    private BufferedImage terrainMip;
+    private BufferedImage visitedMip;
+    private int[] visitedMipSource;
+    private int visitedMipCount;
+
+    private volatile boolean isRunning = false;
+
+    private static final ExecutorService SOLVER_POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "maze-solver");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final Algorithm[] RACE = {Algorithm.BFS, Algorithm.DFS, Algorithm.DIJKSTRA, Algorithm.ASTAR};
 
-    private Point currentHead = null;
-    private Set<Point> currentVisited = new HashSet<>();
-    private Map<String, List<Point>> activePaths = new ConcurrentHashMap<>();
+    private static JLabel lblStatus;
+    private static final Map<String, JLabel> statLabels = new LinkedHashMap<>();
 
-    private boolean isRunning = false;
+    private final BackgroundMusic music = new BackgroundMusic(new File("Outsource/Liyue.wav"),
+            message -> SwingUtilities.invokeLater(() -> updateStatus(message)));
 
-    private static JLabel lblStatus;
-    private static JLabel statBFS, statDFS, statDijk, statAStar;
+    public MazeV2() { this(21, 21, 32); }
 
-    private Clip bgmClip;
-    private FloatControl volumeControl;
-    private boolean isMuted = false;
-    private int sliderValue = 75;
+    public MazeV2(int rows, int cols, int cellSize) { this(rows, cols, cellSize, new Random().nextLong()); }
 
-    public MazeV2() {
-        this.setPreferredSize(new Dimension(COLS * CELL_SIZE, ROWS * CELL_SIZE));
+    public MazeV2(int rows, int cols, int cellSize, long seed) {
+        if (rows < 5 || cols < 5) throw new IllegalArgumentException("Maze must be at least 5x5: " + rows + "x" + cols);
+        this.ROWS = rows;
+        this.COLS = cols;
+        this.cellSize = cellSize;
+        this.seeds = new Random(seed);
+        // The carvers only open odd rows and columns, so an even size puts the exit one further in.
+        this.exitPos = new Point(ROWS - 2 - (ROWS % 2 == 0 ? 1 : 0), COLS - 2 - (COLS % 2 == 0 ? 1 : 0));
+        this.setPreferredSize(new Dimension(COLS * cellSize, ROWS * cellSize));
         this.setBackground(COL_BG_DARK);
+        this.player = new TracePlayer(DELAY_SCAN, DELAY_PATH, new TracePlayer.Listener() {
+            public void onFrame(SearchTrace trace, int visitedCount, int pathLength) { publishFrame(trace, visitedCount, pathLength); }
+            public void onFinished(SearchTrace trace) { finishRun(trace); }
+        });
         generateComplexMaze();
-        initAudio();
-    }
-
-    private void initAudio() {
-        try {
-            File audioFile = new File("Outsource/Liyue.wav");
-            if (audioFile.exists()) {
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(audioFile);
-                bgmClip = AudioSystem.getClip();
-                bgmClip.open(audioStream);
-                if (bgmClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                    volumeControl = (FloatControl) bgmClip.getControl(FloatControl.Type.MASTER_GAIN);
-                    setVolumeByPercentage(sliderValue);
-                }
-                bgmClip.loop(Clip.LOOP_CONTINUOUSLY);
-                bgmClip.start();
-            } else {
-                updateStatus("Audio Missing: Outsource/Liyue.wav");
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int r = e.getY() / cellSize, c = e.getX() / cellSize;
+                if (maze.inBounds(r, c)) editCell(r, c, (maze.get(r, c) + 1) % 4);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        });
+        // Ctrl+wheel zooms around the pointer; a plain wheel is handed on so the enclosing scroll pane still scrolls.
+        addMouseWheelListener(e -> {
+            if (e.isControlDown()) zoom(e.getWheelRotation() < 0, e.getPoint());
+            else if (getParent() != null) getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+        });
     }
 
-    public void setVolumeByPercentage(int percentage) {
-        this.sliderValue = percentage;
-        if (volumeControl == null) return;
-        if (percentage == 0) {
-            volumeControl.setValue(volumeControl.getMinimum());
-            return;
-        }
-        if (isMuted) return;
-        float fraction = percentage / 100.0f;
-        float dB = (float) (Math.log10(fraction) * 20.0);
-        if (dB > volumeControl.getMaximum()) dB = volumeControl.getMaximum();
-        if (dB < volumeControl.getMinimum()) dB = volumeControl.getMinimum();
-        volumeControl.setValue(dB);
-    }
+    public void setVolumeByPercentage(int percentage) { music.setVolume(percentage); }
 
-    public void toggleMute() {
-        if (volumeControl == null) return;
-        isMuted = !isMuted;
-        if (isMuted) volumeControl.setValue(volumeControl.getMinimum());
-        else setVolumeByPercentage(sliderValue);
-    }
+    public void toggleMute() { music.setMuted(!music.isMuted()); }
 
-    public boolean isMuted() { return isMuted; }
+    public boolean isMuted() { return music.isMuted(); }
 
     public void generateComplexMaze() {
         if (isRunning) return;
-        activePaths.clear();
-        currentVisited.clear();
-        resetAllStats();
+        mazeSeed = seeds.nextLong();
+        installMaze(new MazeGenerator(new Random(mazeSeed)).generate(ROWS, COLS, startPos.x, startPos.y, exitPos.x, exitPos.y));
+        updateStatus("Map Generated (seed " + mazeSeed + "). Ready.");
+    }
 
-        maze = new int[ROWS][COLS];
-        for (int r = 0; r < ROWS; r++) Arrays.fill(maze[r], TYPE_WALL);
-
-        maze[1][1] = TYPE_GRASS;
-        ArrayList<int[]> walls = new ArrayList<>();
-        addWalls(1, 1, walls);
-        Random rand = new Random();
-
-        while (!walls.isEmpty()) {
-            int idx = rand.nextInt(walls.size());
-            int[] wall = walls.remove(idx);
-            int nr = wall[0] + wall[2], nc = wall[1] + wall[3];
-            if (isValid(nr, nc) && maze[nr][nc] == TYPE_WALL) {
-                maze[wall[0]][wall[1]] = TYPE_GRASS;
-                maze[nr][nc] = TYPE_GRASS;
-                addWalls(nr, nc, walls);
-            }
+    /** Writes the current maze, its seed and its start/exit to {@code path} in the {@link MazeFile} format. */
+    public void saveMaze(Path path) {
+        try {
+            MazeFile.save(path, maze, mazeSeed, startPos.x, startPos.y, exitPos.x, exitPos.y);
+            updateStatus("Saved " + path.getFileName());
+        } catch (IOException e) {
+            updateStatus("Save failed: " + e.getMessage());
         }
+    }
 
-        for (int r = 1; r < ROWS - 1; r++) {
-            for (int c = 1; c < COLS - 1; c++) {
-                if (maze[r][c] == TYPE_WALL) {
-                    boolean v = (maze[r-1][c] != TYPE_WALL && maze[r+1][c] != TYPE_WALL);
-                    boolean h = (maze[r][c-1] != TYPE_WALL && maze[r][c+1] != TYPE_WALL);
-                    if ((v || h) && rand.nextDouble() < 0.15) maze[r][c] = TYPE_GRASS;
-                }
+    /** Maps a saved maze and solves over the file directly; it must match this panel's size. */
+    public void loadMaze(Path path) {
+        if (isRunning) return;
+        try {
+            MazeFile file = MazeFile.load(path);
+            if (file.rows != ROWS || file.cols != COLS) {
+                updateStatus("Map is " + file.rows + "x" + file.cols + ", panel is " + ROWS + "x" + COLS);
+                return;
             }
+            mazeSeed = file.seed;
+            startPos = new Point(file.startR, file.startC);
+            exitPos = new Point(file.exitR, file.exitC);
+            installMaze(file.grid);
+            updateStatus("Loaded " + path.getFileName());
+        } catch (IOException e) {
+            updateStatus("Load failed: " + e.getMessage());
         }
+    }
 
-        for(int r=0; r<ROWS; r++){
-            for(int c=0; c<COLS; c++){
-                if(maze[r][c] != TYPE_WALL) {
-                    double chance = rand.nextDouble();
-                    if (chance < 0.5) maze[r][c] = TYPE_GRASS;
-                    else if (chance < 0.8) maze[r][c] = TYPE_MUD;
-                    else maze[r][c] = TYPE_WATER;
-                }
-            }
-        }
+    private void installMaze(MazeGrid grid) {
+        finishedPaths.clear();
+        renderState = RenderState.EMPTY;
+        resetAllStats();
 
-        maze[startPos.x][startPos.y] = TYPE_GRASS;
-        maze[exitPos.x][exitPos.y] = TYPE_GRASS;
+        terrainMip = null;
+        maze = grid;
+        batchSolver.reset(maze);
+        dropLandmarks();
+        repaint();
+    }
 
-        updateStatus("Map Generated. Ready.");
+    public void clearLines() {
+        finishedPaths.clear();
+        renderState = RenderState.EMPTY;
+        resetAllStats();
         repaint();
     }
 
-    private void addWalls(int r, int c, ArrayList<int[]> walls) {
-        int[][] dirs = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-        for (int[] d : dirs) {
-            int nr = r + d[0], nc = c + d[1];
-            if (isValid(nr, nc) && maze[nr][nc] == TYPE_WALL) walls.add(new int[]{nr, nc, d[0], d[1]});
+    /**
+     * Changes one cell's terrain and repairs the live LPA* route from start to exit instead of re-solving.
+     * Clicking a cell in the panel cycles it through wall, grass, mud and water.
+     */
+    public void editCell(int r, int c, int type) {
+        if (isRunning || (r == startPos.x && c == startPos.y) || (r == exitPos.x && c == exitPos.y)) return;
+        if (planner == null || planner.grid() != maze) {
+            planner = new IncrementalPlanner(maze, maze.index(startPos.x, startPos.y), maze.index(exitPos.x, exitPos.y));
         }
+        planner.setCell(maze.index(r, c), type);
+        if (solver != null && solver.grid() == maze) solver.cellChanged(maze.index(r, c));
+        if (landmarks != null) dropLandmarks();
+        if (terrainMip != null) setTerrainPixel(r, c, type);
+
+        SolveResult result = planner.plan();
+        updateAlgoStats(planner.lastRun());
+        if (result.found) finishedPaths.put("LPA*", result.path); else finishedPaths.remove("LPA*");
+        updateStatus(result.found ? "Replanned after edit." : "LPA*: exit unreachable.");
+        renderState = new RenderState(new int[0], 0, -1, pathViews(null, 0));
+        repaint();
+    }
+
+    /**
+     * The ALT tables for the maze as it is now. They are built off the EDT the first time a version of the maze
+     * needs them, then shared by every ALT run and the batch solver until the next edit or new maze.
+     */
+    private CompletableFuture<LandmarkTable> landmarksFor(MazeGrid grid) {
+        if (landmarks != null && landmarksGridId == grid.id() && landmarksModCount == grid.modCount()) return landmarks;
+        dropLandmarks();
+        CompletableFuture<LandmarkTable> tables = new CompletableFuture<>();
+        landmarks = tables;
+        landmarksGridId = grid.id();
+        landmarksModCount = grid.modCount();
+        SOLVER_POOL.execute(() -> {
+            try {
+                tables.complete(new LandmarkTable(grid, LANDMARKS, tables::isCancelled));
+            } catch (Throwable e) {
+                tables.completeExceptionally(e);
+            }
+        });
+        tables.thenAccept(t -> SwingUtilities.invokeLater(() -> {
+            if (tables != landmarks) return;
+            batchSolver.setLandmarks(t);
+            if (!isRunning) updateStatus(String.format("ALT tables: %d landmarks, %.1f KB", t.count(), t.memoryBytes() / 1024.0));
+        }));
+        return tables;
+    }
+
+    /** Cancels a build for a maze version that no longer exists and forgets the tables. */
+    private void dropLandmarks() {
+        if (landmarks != null) landmarks.cancel(false);
+        landmarks = null;
+        landmarksGridId = landmarksModCount = -1;
     }
 
-    private int getCellCost(int r, int c) {
-        if (maze[r][c] == TYPE_GRASS) return 1;
-        if (maze[r][c] == TYPE_MUD) return 5;
-        if (maze[r][c] == TYPE_WATER) return 10;
-        return 9999;
+    /** ALT tables for the current maze, building them if needed and waiting for the build. */
+    public LandmarkTable getLandmarks() { return landmarksFor(maze).join(); }
+
+    /** Parallel, cached query API over the current maze; reset whenever a new maze is generated. */
+    public BatchSolver getBatchSolver() { return batchSolver; }
+
+    /** Distance and next-step field toward {@code exitPos}; built on first use and again after the maze changes. */
+    public synchronized FlowField getFlowField() {
+        int exit = maze.index(exitPos.x, exitPos.y);
+        if (flowField == null || flowField.grid() != maze || flowField.exit() != exit) flowField = new FlowField(maze, exit);
+        return flowField;
     }
 
+    public void setPlaybackSpeed(int multiplier) { player.setSpeed(multiplier); }
+    public void setInstantPlayback(boolean instant) { player.setInstant(instant); }
+
     private void prepareRun(String algoName) {
         if (isRunning) return;
         isRunning = true;
-        currentVisited.clear();
-        activePaths.remove(algoName);
+        finishedPaths.remove(algoName);
+        renderState = new RenderState(new int[0], 0, -1, pathViews(null, 0));
         updateStatus("Running " + algoName + "...");
         repaint();
     }
 
-    public void solveBFS() {
-        if (isRunning) return; prepareRun("BFS");
-        new Thread(() -> {
-            Queue<Point> q = new LinkedList<>(); Map<Point, Point> p = new HashMap<>();
-            q.add(startPos); currentVisited.add(startPos); boolean found = false;
-            while (!q.isEmpty()) {
-                Point cur = q.poll(); currentHead = cur; repaint(); sleep(DELAY_SCAN);
-                if (cur.equals(exitPos)) { found = true; break; }
-                int[][] d = {{-1,0},{1,0},{0,-1},{0,1}};
-                for (int[] dir : d) { Point n = new Point(cur.x+dir[0], cur.y+dir[1]);
-                    if (isValidStep(n) && !currentVisited.contains(n)) { currentVisited.add(n); p.put(n, cur); q.add(n); }
-                }
-            }
-            finishRun("BFS", p, found);
-        }).start();
-    }
-
-    public void solveDFS() {
-        if (isRunning) return; prepareRun("DFS");
-        new Thread(() -> {
-            Stack<Point> s = new Stack<>(); Map<Point, Point> p = new HashMap<>();
-            s.push(startPos); currentVisited.add(startPos); boolean found = false;
-            while (!s.isEmpty()) {
-                Point cur = s.pop(); currentHead = cur; repaint(); sleep(DELAY_SCAN);
-                if (cur.equals(exitPos)) { found = true; break; }
-                List<Point> nb = new ArrayList<>(); int[][] d = {{-1,0},{1,0},{0,-1},{0,1}};
-                for (int[] dir : d) { Point n = new Point(cur.x+dir[0], cur.y+dir[1]);
-                    if (isValidStep(n) && !currentVisited.contains(n)) nb.add(n);
-                }
-                Collections.shuffle(nb);
-                for (Point n : nb) { currentVisited.add(n); p.put(n, cur); s.push(n); }
-            }
-            finishRun("DFS", p, found);
-        }).start();
-    }
-
-    public void solveDijkstra() {
-        if (isRunning) return; prepareRun("Dijkstra");
-        new Thread(() -> {
-            PriorityQueue<Node> pq = new PriorityQueue<>(); int[][] dist = new int[ROWS][COLS];
-            for(int[] r : dist) Arrays.fill(r, Integer.MAX_VALUE); Map<Point, Point> pa = new HashMap<>();
-            dist[startPos.x][startPos.y] = 0; pq.add(new Node(startPos, 0)); boolean found = false;
-            while (!pq.isEmpty()) {
-                Node cur = pq.poll(); Point cp = cur.p; if (cur.val > dist[cp.x][cp.y]) continue;
-                currentHead = cp; currentVisited.add(cp); repaint(); sleep(DELAY_SCAN);
-                if (cp.equals(exitPos)) { found = true; break; }
-                int[][] d = {{-1,0},{1,0},{0,-1},{0,1}};
-                for (int[] dir : d) { Point np = new Point(cp.x+dir[0], cp.y+dir[1]);
-                    if (isValidStep(np)) { int nc = dist[cp.x][cp.y] + getCellCost(np.x, np.y);
-                        if (nc < dist[np.x][np.y]) { dist[np.x][np.y] = nc; pq.add(new Node(np, nc)); pa.put(np, cp); }
-                    }
-                }
-            }
-            finishRun("Dijkstra", pa, found);
-        }).start();
-    }
-
-    public void solveAStar() {
-        if (isRunning) return; prepareRun("A*");
-        new Thread(() -> {
-            PriorityQueue<Node> pq = new PriorityQueue<>(); int[][] gs = new int[ROWS][COLS];
-            for(int[] r : gs) Arrays.fill(r, Integer.MAX_VALUE); Map<Point, Point> pa = new HashMap<>();
-            gs[startPos.x][startPos.y] = 0; pq.add(new Node(startPos, 0)); boolean found = false;
-            while (!pq.isEmpty()) {
-                Node cur = pq.poll(); Point cp = cur.p; if (cur.val > gs[cp.x][cp.y]) continue;
-                currentHead = cp; currentVisited.add(cp); repaint(); sleep(DELAY_SCAN);
-                if (cp.equals(exitPos)) { found = true; break; }
-                int[][] d = {{-1,0},{1,0},{0,-1},{0,1}};
-                for (int[] dir : d) { Point np = new Point(cp.x+dir[0], cp.y+dir[1]);
-                    if (isValidStep(np)) { int tg = gs[cp.x][cp.y] + getCellCost(np.x, np.y);
-                        if (tg < gs[np.x][np.y]) { gs[np.x][np.y] = tg; int f = tg + (Math.abs(np.x-exitPos.x)+Math.abs(np.y-exitPos.y));
-                            Node nn = new Node(np, tg); nn.priority = f; pq.add(nn); pa.put(np, cp); }
-                    }
-                }
-            }
-            finishRun("A*", pa, found);
-        }).start();
+    public void solveBFS() { runSolver(Algorithm.BFS); }
+    public void solveDFS() { runSolver(Algorithm.DFS); }
+    public void solveDijkstra() { runSolver(Algorithm.DIJKSTRA); }
+    public void solveAStar() { runSolver(Algorithm.ASTAR); }
+    public void solveBiDijkstra() { runSolver(Algorithm.BI_DIJKSTRA); }
+    public void solveBiAStar() { runSolver(Algorithm.BI_ASTAR); }
+    public void solve(Algorithm algo) { if (algo != null) runSolver(algo); }
+
+    private void runSolver(Algorithm algo) {
+        if (isRunning) return; prepareRun(algo.label());
+        MazeGrid grid = maze;
+        int start = grid.index(startPos.x, startPos.y), exit = grid.index(exitPos.x, exitPos.y);
+        // Kept across runs so cached abstractions (corridor graph, HPA* clusters) survive; one run at a time.
+        if (solver == null || solver.grid() != grid) solver = new MazeSolver(grid);
+        MazeSolver solver = this.solver;
+        CompletableFuture<LandmarkTable> tables = algo == Algorithm.ALT ? landmarksFor(grid) : null;
+        CompletableFuture.supplyAsync(() -> {
+            if (algo == Algorithm.ALT) solver.setLandmarks(tables.join());
+            return solver.solveTraced(algo, start, exit);
+        }, SOLVER_POOL).whenComplete((trace, error) -> {
+            SolveMetrics metrics = error == null ? solver.lastRun() : null;
+            SwingUtilities.invokeLater(() -> {
+                if (error != null) { failRun(algo.label(), error); return; }
+                updateAlgoStats(metrics);
+                player.play(trace);
+            });
+        });
+    }
+
+    /** Ends a run whose solver threw, e.g. out of memory while building ALT or HPA* data, so the panel accepts new runs. */
+    private void failRun(String algoName, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        isRunning = false;
+        updateStatus(algoName + " failed: " + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()));
+        repaint();
     }
 
-    private void finishRun(String algoName, Map<Point, Point> parents, boolean found) {
-        currentHead = null;
-        if (!found) { updateStatus(algoName + " Failed!"); isRunning = false; repaint(); return; }
+    /** Runs every algorithm in {@link #RACE} at once, each with its own solver over a private copy of the maze. */
+    public void raceAll() {
+        if (isRunning) return;
+        isRunning = true;
+        player.stop();
+        for (Algorithm algo : RACE) finishedPaths.remove(algo.label());
+        renderState = new RenderState(new int[0], 0, -1, pathViews(null, 0));
+        updateStatus("Racing " + RACE.length + " algorithms...");
+        repaint();
+
+        MazeGrid snapshot = maze.copy();
+        int start = snapshot.index(startPos.x, startPos.y), exit = snapshot.index(exitPos.x, exitPos.y);
+        List<CompletableFuture<RaceEntry>> runs = new ArrayList<>();
+        for (Algorithm algo : RACE) {
+            runs.add(CompletableFuture.supplyAsync(() -> {
+                MazeSolver solver = new MazeSolver(snapshot);
+                SolveResult result = solver.solve(algo, start, exit);
+                return new RaceEntry(algo, result, solver.lastRun());
+            }, SOLVER_POOL));
+        }
+        CompletableFuture.allOf(runs.toArray(CompletableFuture<?>[]::new))
+                .whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> finishRace(runs, error)));
+    }
+
+    private void finishRace(List<CompletableFuture<RaceEntry>> runs, Throwable error) {
+        isRunning = false;
+        if (error != null) { updateStatus("Race failed: " + error.getMessage()); repaint(); return; }
+        RaceEntry fastest = null;
+        for (CompletableFuture<RaceEntry> run : runs) {
+            RaceEntry entry = run.join();
+            updateAlgoStats(entry.metrics);
+            if (entry.result.found) finishedPaths.put(entry.algo.label(), entry.result.path);
+            if (entry.result.found && (fastest == null || entry.metrics.wallNanos < fastest.metrics.wallNanos)) fastest = entry;
+        }
+        renderState = new RenderState(new int[0], 0, -1, pathViews(null, 0));
+        updateStatus(fastest == null ? "Race: no path found." : String.format("Race won by %s (%.2f ms)", fastest.algo.label(), fastest.metrics.wallNanos / 1e6));
+        repaint();
+    }
 
-        List<Point> path = new ArrayList<>(); Point curr = exitPos; int cost = 0;
-        while (curr != null) { path.add(curr); cost += getCellCost(curr.x, curr.y); curr = parents.get(curr); }
-        Collections.reverse(path);
+    private void publishFrame(SearchTrace trace, int visitedCount, int pathLength) {
+        int head = visitedCount > 0 && visitedCount < trace.expansions.length ? trace.expansions[visitedCount - 1] : -1;
+        RenderState prev = renderState;
+        RenderState next = new RenderState(trace.expansions, visitedCount, head, pathViews(trace, pathLength));
+        renderState = next;
+        repaintChanged(prev, next);
+    }
 
-        activePaths.put(algoName, new ArrayList<>());
-        cost -= getCellCost(startPos.x, startPos.y);
-        int steps = path.size() - 1;
+    /** Repaints the bounding box of the cells that differ between two frames instead of the whole panel. */
+    private void repaintChanged(RenderState prev, RenderState next) {
+        if (!next.paths.keySet().containsAll(prev.paths.keySet())) { repaint(); return; }
+        Rectangle dirty = new Rectangle();
+        addCell(dirty, prev.head); addCell(dirty, next.head);
+        for (int i = prev.visited == next.visited ? prev.visitedCount : 0; i < next.visitedCount; i++) addCell(dirty, next.visited[i]);
+        next.paths.forEach((algo, view) -> {
+            PathView old = prev.paths.get(algo);
+            int from = old != null && old.cells == view.cells ? Math.max(0, old.length - 1) : 0;
+            for (int i = from; i < view.length; i++) addCell(dirty, view.cells[i]);
+        });
+        if (dirty.isEmpty()) return;
+        dirty.grow(PATH_PAD, PATH_PAD);
+        repaint(dirty);
+    }
 
-        updateStatus(algoName + " Finished.");
-        updateAlgoStats(algoName, steps, cost);
+    private void addCell(Rectangle dirty, int cell) {
+        if (cell < 0) return;
+        Rectangle r = new Rectangle(maze.col(cell) * cellSize, maze.row(cell) * cellSize, cellSize, cellSize);
+        if (dirty.isEmpty()) dirty.setBounds(r); else dirty.add(r);
+    }
 
-        List<Point> animList = activePaths.get(algoName);
-        for (Point p : path) { animList.add(p); repaint(); sleep(DELAY_PATH); }
+    private void finishRun(SearchTrace trace) {
+        String algoName = trace.algorithm.label();
+        if (trace.result.found) {
+            finishedPaths.put(algoName, trace.result.path);
+            updateStatus(algoName + " Finished.");
+        } else {
+            updateStatus(algoName + " Failed!");
+        }
         isRunning = false;
+        repaint();
+    }
+
+    /** Finished paths plus the prefix of {@code trace}'s path revealed so far. */
+    private Map<String, PathView> pathViews(SearchTrace trace, int pathLength) {
+        Map<String, PathView> views = new LinkedHashMap<>();
+        finishedPaths.forEach((algo, path) -> views.put(algo, new PathView(path, path.length)));
+        if (trace != null && pathLength > 0) views.put(trace.algorithm.label(), new PathView(trace.result.path, pathLength));
+        return Collections.unmodifiableMap(views);
     }
 
-    private void updateAlgoStats(String algo, int steps, int cost) {
-        String text = String.format("Steps: %d | Cost: %d", steps, cost);
+    /**
+     * Full per-run instrumentation: steps and cost, wall and CPU time, then the frontier counters. The tooltip
+     * shows the rolling aggregates the {@code maze:type=SolverMetrics} MBean exposes for the same algorithm.
+     */
+    private void updateAlgoStats(SolveMetrics m) {
+        String label = m.algorithm.label();
+        String text = (m.found ? String.format("Steps: %d | Cost: %d", m.steps, m.cost) : "Failed")
+                + String.format("<br>%.2f ms (cpu %s) | %d nodes", m.wallNanos / 1e6, m.cpuNanos < 0 ? "n/a" : String.format("%.2f", m.cpuNanos / 1e6), m.expanded)
+                + String.format("<br>push %d | stale %d | peak %d</html>", m.pushed, m.stalePops, m.peakFrontier);
+        RunSummary summary = SolverMetrics.global().summary(m.algorithm);
+        String tip = summary == null ? null : String.format("Last %d runs: %.2f ms avg, %.2f ms max, %.0f nodes avg, peak frontier %d",
+                summary.getWindowRuns(), summary.getMeanWallMillis(), summary.getMaxWallMillis(), summary.getMeanExpanded(), summary.getMaxPeakFrontier());
         SwingUtilities.invokeLater(() -> {
-            switch (algo) {
-                case "BFS": if(statBFS != null) statBFS.setText("BFS: " + text); break;
-                case "DFS": if(statDFS != null) statDFS.setText("DFS: " + text); break;
-                case "Dijkstra": if(statDijk != null) statDijk.setText("Dijk: " + text); break;
-                case "A*": if(statAStar != null) statAStar.setText("A*: " + text); break;
-            }
+            JLabel stat = statLabels.get(label);
+            if (stat == null) return;
+            stat.setText("<html>" + PATH_STYLES.getOrDefault(label, DEFAULT_STYLE).shortName + ": " + text);
+            stat.setToolTipText(tip);
         });
     }
 
     private void resetAllStats() {
-        if(statBFS != null) statBFS.setText("BFS: -");
-        if(statDFS != null) statDFS.setText("DFS: -");
-        if(statDijk != null) statDijk.setText("Dijk: -");
-        if(statAStar != null) statAStar.setText("A*: -");
+        statLabels.forEach((algo, label) -> label.setText(PATH_STYLES.getOrDefault(algo, DEFAULT_STYLE).shortName + ": -"));
+    }
+
+    /**
+     * Zooms in or out by a factor of two and keeps the point under {@code anchor} (panel coordinates) where it
+     * is on screen; a null anchor zooms about the centre of the viewport.
+     */
+    public void zoom(boolean in, Point anchor) {
+        int size = Math.max(MIN_CELL, Math.min(MAX_CELL, in ? cellSize * 2 : cellSize / 2));
+        if (size == cellSize) return;
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        Rectangle view = viewport != null ? viewport.getViewRect() : new Rectangle();
+        if (anchor == null) anchor = new Point(view.x + view.width / 2, view.y + view.height / 2);
+        double f = (double) size / cellSize;
+        cellSize = size;
+        Dimension d = new Dimension(COLS * cellSize, ROWS * cellSize);
+        setPreferredSize(d);
+        setSize(d);
+        if (viewport != null) {
+            int x = (int) Math.round(anchor.x * f) - (anchor.x - view.x), y = (int) Math.round(anchor.y * f) - (anchor.y - view.y);
+            viewport.setViewPosition(new Point(Math.max(0, Math.min(x, d.width - view.width)), Math.max(0, Math.min(y, d.height - view.height))));
+        }
+        revalidate();
+        repaint();
+        updateStatus("Zoom: " + cellSize + " px/cell" + (cellSize < DETAIL_CELL ? " (overview)" : ""));
     }
 
+    public int cellSize() { return cellSize; }
+
+    /**
+     * Draws only what intersects the clip, so the cost of a paint follows the viewport rather than the maze.
+     * Zoomed out, terrain and visited cells are scaled-up blits of their one-pixel-per-cell images; zoomed in,
+     * each visible cell is drawn in full. Paths are culled segment by segment.
+     */
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        for (int r = 0; r < ROWS; r++) {
-            for (int c = 0; c < COLS; c++) {
-                drawCell(g2, r, c, c * CELL_SIZE, r * CELL_SIZE);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int s = cellSize;
+        int c0 = Math.max(0, clip.x / s), c1 = Math.min(COLS, (clip.x + clip.width + s - 1) / s);
+        int r0 = Math.max(0, clip.y / s), r1 = Math.min(ROWS, (clip.y + clip.height + s - 1) / s);
+        RenderState rs = renderState;
+        if (c0 < c1 && r0 < r1) {
+            if (s < DETAIL_CELL) {
+                drawScaled(g2, terrainMip(), c0, r0, c1, r1);
+            } else {
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) drawCell(g2, r, c, c * s, r * s);
+                }
             }
+            syncVisitedMip(rs);
+            drawScaled(g2, visitedMip, c0, r0, c1, r1);
+        }
+
+        // Consecutive cells are one cell apart, so a segment reaching into the clip has both ends within a cell of it.
+        Rectangle bounds = new Rectangle(clip);
+        bounds.grow(PATH_PAD + s, PATH_PAD + s);
+        rs.paths.forEach((algo, view) -> drawPath(g2, view, PATH_STYLES.getOrDefault(algo, DEFAULT_STYLE), bounds));
+
+        if (rs.head >= 0) {
+            int d = discSize(), hx = maze.col(rs.head) * s + (s - d) / 2, hy = maze.row(rs.head) * s + (s - d) / 2;
+            g2.setColor(COL_HEAD);
+            g2.fillOval(hx, hy, d, d);
+            g2.setColor(Color.WHITE); g2.setStroke(STROKE_OUTLINE);
+            g2.drawOval(hx, hy, d, d);
         }
+        drawMarker(g2, startPos, Color.WHITE, "S");
+        drawMarker(g2, exitPos, COL_EXIT, "E");
+    }
 
-        activePaths.forEach((algo, pathList) -> {
-            if (pathList.isEmpty()) return;
-            Color color = Color.WHITE; int ox = 0, oy = 0;
-            switch (algo) {
-                case "BFS": color = COLOR_BFS; ox = -6; oy = -6; break;
-                case "DFS": color = COLOR_DFS; ox = 6; oy = -6; break;
-                case "Dijkstra": color = COLOR_DIJKSTRA; ox = -6; oy = 6; break;
-                case "A*": color = COLOR_ASTAR; ox = 6; oy = 6; break;
+    /** Draws the runs of {@code view} whose points fall inside {@code bounds}; the rest of the path is skipped. */
+    private void drawPath(Graphics2D g2, PathView view, PathStyle style, Rectangle bounds) {
+        if (view.length == 0) return;
+        int s = cellSize, scale = Math.min(s, BASE_CELL), ox = style.ox * scale / BASE_CELL, oy = style.oy * scale / BASE_CELL;
+        g2.setColor(style.color);
+        g2.setStroke(STROKE_PATH);
+        int[] xPoints = new int[Math.min(view.length, 1024)];
+        int[] yPoints = new int[xPoints.length];
+        int run = 0;
+        for (int i = 0; i <= view.length; i++) {
+            int x = 0, y = 0;
+            boolean inside = false;
+            if (i < view.length) {
+                int cell = view.cells[i];
+                x = maze.col(cell) * s + s / 2 + ox;
+                y = maze.row(cell) * s + s / 2 + oy;
+                inside = bounds.contains(x, y);
             }
-            g2.setColor(color);
-            g2.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-
-            if (pathList.size() > 1) {
-                int[] xPoints = new int[pathList.size()];
-                int[] yPoints = new int[pathList.size()];
-                for (int i=0; i<pathList.size(); i++) {
-                    Point p = pathList.get(i);
-                    xPoints[i] = p.y * CELL_SIZE + CELL_SIZE/2 + ox;
-                    yPoints[i] = p.x * CELL_SIZE + CELL_SIZE/2 + oy;
+            if (inside) {
+                if (run == xPoints.length) {
+                    xPoints = Arrays.copyOf(xPoints, run * 2);
+                    yPoints = Arrays.copyOf(yPoints, run * 2);
                 }
-                g2.drawPolyline(xPoints, yPoints, pathList.size());
+                xPoints[run] = x; yPoints[run] = y; run++;
+                continue;
             }
-            for(Point p : pathList) {
-                g2.fillOval(p.y * CELL_SIZE + CELL_SIZE/2 + ox - 3, p.x * CELL_SIZE + CELL_SIZE/2 + oy - 3, 6, 6);
+            if (run > 1) g2.drawPolyline(xPoints, yPoints, run);
+            if (s >= DETAIL_CELL) {
+                for (int k = 0; k < run; k++) g2.fillOval(xPoints[k] - 3, yPoints[k] - 3, 6, 6);
             }
-        });
+            run = 0;
+        }
+    }
+
+    /** Blits cells {@code [c0, c1) x [r0, r1)} of a one-pixel-per-cell image at the current zoom. */
+    private void drawScaled(Graphics2D g2, BufferedImage img, int c0, int r0, int c1, int r1) {
+        int s = cellSize;
+        g2.drawImage(img, c0 * s, r0 * s, c1 * s, r1 * s, c0, r0, c1, r1, null);
+    }
+
+    /** Terrain at one pixel per cell and 2 bits per pixel, indexed by terrain type; built on first use per maze. */
+    private BufferedImage terrainMip() {
+        if (terrainMip != null) return terrainMip;
+        Color[] colors = new Color[4];
+        colors[TYPE_WALL] = COL_WALL_TOP; colors[TYPE_GRASS] = COL_GRASS; colors[TYPE_MUD] = COL_MUD; colors[TYPE_WATER] = COL_WATER;
+        BufferedImage img = new BufferedImage(COLS, ROWS, BufferedImage.TYPE_BYTE_BINARY, palette(colors));
+        byte[] data = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+        int stride = (COLS + 3) >>> 2;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS; c++) data[r * stride + (c >>> 2)] |= (byte) (maze.get(r, c) << (6 - 2 * (c & 3)));
+        }
+        return terrainMip = img;
+    }
+
+    private void setTerrainPixel(int r, int c, int type) {
+        byte[] data = ((DataBufferByte) terrainMip.getRaster().getDataBuffer()).getData();
+        int i = r * ((COLS + 3) >>> 2) + (c >>> 2), shift = 6 - 2 * (c & 3);
+        data[i] = (byte) ((data[i] & ~(3 << shift)) | (type << shift));
+    }
 
-        if (currentHead != null) {
-            g2.setColor(new Color(255, 100, 0, 200));
-            int hx = currentHead.y * CELL_SIZE, hy = currentHead.x * CELL_SIZE;
-            g2.fillOval(hx + 4, hy + 4, CELL_SIZE - 8, CELL_SIZE - 8);
-            g2.setColor(Color.WHITE); g2.setStroke(new BasicStroke(2));
-            g2.drawOval(hx + 4, hy + 4, CELL_SIZE - 8, CELL_SIZE - 8);
+    /** Brings the 1-bit visited image up to {@code rs}, setting only cells expanded since the last paint. */
+    private void syncVisitedMip(RenderState rs) {
+        if (visitedMip == null) {
+            visitedMip = new BufferedImage(COLS, ROWS, BufferedImage.TYPE_BYTE_BINARY, palette(new Color(0, 0, 0, 0), COL_VISITED));
+            visitedMipSource = null;
         }
-        drawMarker(g2, startPos, Color.WHITE, "S");
-        drawMarker(g2, exitPos, new Color(255, 50, 50), "E");
+        byte[] data = ((DataBufferByte) visitedMip.getRaster().getDataBuffer()).getData();
+        if (visitedMipSource != rs.visited || visitedMipCount > rs.visitedCount) {
+            Arrays.fill(data, (byte) 0);
+            visitedMipSource = rs.visited;
+            visitedMipCount = 0;
+        }
+        int stride = (COLS + 7) >>> 3;
+        for (int i = visitedMipCount; i < rs.visitedCount; i++) {
+            int cell = rs.visited[i], c = maze.col(cell);
+            data[maze.row(cell) * stride + (c >>> 3)] |= (byte) (0x80 >>> (c & 7));
+        }
+        visitedMipCount = rs.visitedCount;
+    }
+
+    private static IndexColorModel palette(Color... colors) {
+        int n = colors.length;
+        byte[] red = new byte[n], green = new byte[n], blue = new byte[n], alpha = new byte[n];
+        for (int i = 0; i < n; i++) {
+            red[i] = (byte) colors[i].getRed(); green[i] = (byte) colors[i].getGreen();
+            blue[i] = (byte) colors[i].getBlue(); alpha[i] = (byte) colors[i].getAlpha();
+        }
+        return new IndexColorModel(n <= 2 ? 1 : 2, n, red, green, blue, alpha);
     }
 
     private void drawCell(Graphics2D g2, int r, int c, int x, int y) {
-        int type = maze[r][c];
+        int type = maze.get(r, c), s = cellSize;
         if (type == TYPE_WALL) {
-            g2.setColor(COL_WALL_BASE); g2.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-            g2.setColor(COL_WALL_TOP); g2.fillRect(x + 2, y + 2, CELL_SIZE - 4, CELL_SIZE - 4);
+            g2.setColor(COL_WALL_BASE); g2.fillRect(x, y, s, s);
+            g2.setColor(COL_WALL_TOP); g2.fillRect(x + 2, y + 2, s - 4, s - 4);
         } else {
-            if (type == TYPE_GRASS) g2.setColor(new Color(34, 139, 34));
-            else if (type == TYPE_MUD) g2.setColor(new Color(101, 67, 33));
-            else if (type == TYPE_WATER) g2.setColor(new Color(0, 105, 148));
-            g2.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+            if (type == TYPE_GRASS) g2.setColor(COL_GRASS);
+            else if (type == TYPE_MUD) g2.setColor(COL_MUD);
+            else if (type == TYPE_WATER) g2.setColor(COL_WATER);
+            g2.fillRect(x, y, s, s);
+            if (s < BASE_CELL * 3 / 4) return;
 
             if (type == TYPE_GRASS) {
-                g2.setColor(new Color(50, 205, 50, 100)); g2.fillRect(x+5, y+5, 4, 4); g2.fillRect(x+20, y+20, 3, 3);
+                g2.setColor(COL_GRASS_TUFT); g2.fillRect(x+5, y+5, 4, 4); g2.fillRect(x+20, y+20, 3, 3);
             } else if (type == TYPE_WATER) {
-                g2.setColor(new Color(135, 206, 250, 80)); g2.drawLine(x+5, y+10, x+15, y+10);
+                g2.setColor(COL_WATER_RIPPLE); g2.drawLine(x+5, y+10, x+15, y+10);
             } else if (type == TYPE_MUD) {
-                g2.setColor(new Color(60, 40, 10, 80)); g2.fillOval(x+8, y+8, 6, 6);
-            }
-            if (currentVisited.contains(new Point(r, c))) {
-                g2.setColor(new Color(255, 255, 255, 40)); g2.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+                g2.setColor(COL_MUD_SPOT); g2.fillOval(x+8, y+8, 6, 6);
             }
         }
     }
 
+    /** Diameter of the head and marker discs: a 4px inset at full size, never smaller than 6px when zoomed out. */
+    private int discSize() { return Math.max(cellSize - 8, 6); }
+
     private void drawMarker(Graphics2D g2, Point p, Color c, String text) {
-        int x = p.y * CELL_SIZE, y = p.x * CELL_SIZE;
-        g2.setColor(new Color(0,0,0,100)); g2.fillOval(x+6, y+8, CELL_SIZE-10, CELL_SIZE-10);
-        g2.setColor(c); g2.fillOval(x+4, y+4, CELL_SIZE-8, CELL_SIZE-8);
-        g2.setColor(Color.BLACK); g2.setStroke(new BasicStroke(2)); g2.drawOval(x+4, y+4, CELL_SIZE-8, CELL_SIZE-8);
-        g2.setFont(new Font("Arial", Font.BOLD, 14)); g2.drawString(text, x+11, y+21);
+        int d = discSize(), x = p.y * cellSize + (cellSize - d) / 2, y = p.x * cellSize + (cellSize - d) / 2;
+        g2.setColor(COL_SHADOW); g2.fillOval(x+2, y+4, d-2, d-2);
+        g2.setColor(c); g2.fillOval(x, y, d, d);
+        g2.setColor(Color.BLACK); g2.setStroke(STROKE_OUTLINE); g2.drawOval(x, y, d, d);
+        if (d >= 16) { g2.setFont(FONT_MARKER); g2.drawString(text, x + d / 2 - 5, y + d / 2 + 5); }
     }
 
     private void updateStatus(String text) { if (lblStatus != null) lblStatus.setText(text); }
 
-    private void sleep(int millis) { try { Thread.sleep(millis); } catch (Exception e) {} }
-    private boolean isValid(int r, int c) { return r > 0 && r < ROWS - 1 && c > 0 && c < COLS - 1; }
-    private boolean isValidStep(Point p) { return p.x >= 0 && p.x < ROWS && p.y >= 0 && p.y < COLS && maze[p.x][p.y] != TYPE_WALL; }
 
-    class Node implements Comparable<Node> {
-        Point p; int val; int priority;
-        public Node(Point p, int val) { this.p = p; this.val = val; this.priority = val; }
-        public int compareTo(Node o) { return Integer.compare(this.priority, o.priority); }
+    /** Immutable view handed from the trace player to {@link #paintComponent}. */
+    private static final class RenderState {
+        static final RenderState EMPTY = new RenderState(new int[0], 0, -1, Collections.emptyMap());
+        final int[] visited; final int visitedCount; final int head; final Map<String, PathView> paths;
+        RenderState(int[] visited, int visitedCount, int head, Map<String, PathView> paths) {
+            this.visited = visited; this.visitedCount = visitedCount; this.head = head; this.paths = paths;
+        }
+    }
+
+    private static final class RaceEntry {
+        final Algorithm algo; final SolveResult result; final SolveMetrics metrics;
+        RaceEntry(Algorithm algo, SolveResult result, SolveMetrics metrics) { this.algo = algo; this.result = result; this.metrics = metrics; }
+    }
+
+    private static final class PathStyle {
+        final Color color; final int ox, oy; final String shortName;
+        PathStyle(Color color, int ox, int oy, String shortName) { this.color = color; this.ox = ox; this.oy = oy; this.shortName = shortName; }
+    }
+
+    private static final class PathView {
+        final int[] cells; final int length;
+        PathView(int[] cells, int length) { this.cells = cells; this.length = length; }
     }
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            HeadlessSweep.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception e) {}
 
         JFrame frame = new JFrame("Maze Game - Path Finder Algorithm");
-        MazeV2 gamePanel = new MazeV2();
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 21;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : rows;
+        int cellSize = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(1, Math.min(32, 800 / Math.max(rows, cols)));
+        MazeV2 gamePanel = args.length > 3 ? new MazeV2(rows, cols, cellSize, Long.parseLong(args[3])) : new MazeV2(rows, cols, cellSize);
 
         frame.setLayout(new BorderLayout());
-        frame.add(gamePanel, BorderLayout.CENTER);
+        JScrollPane mazeScroll = new JScrollPane(gamePanel);
+        mazeScroll.setBorder(null);
+        mazeScroll.getVerticalScrollBar().setUnitIncrement(16);
+        mazeScroll.getHorizontalScrollBar().setUnitIncrement(16);
+        Dimension mazeSize = gamePanel.getPreferredSize();
+        mazeScroll.getViewport().setPreferredSize(new Dimension(Math.min(mazeSize.width, VIEW_WIDTH), Math.min(mazeSize.height, VIEW_HEIGHT)));
+        frame.add(mazeScroll, BorderLayout.CENTER);
 
         JPanel sidebar = new JPanel();
         sidebar.setLayout(new BoxLayout(sidebar, BoxLayout.Y_AXIS));
-        sidebar.setPreferredSize(new Dimension(250, 0));
         sidebar.setBackground(new Color(40, 40, 45));
         sidebar.setBorder(new EmptyBorder(15, 15, 15, 15));
 
@@ -427,14 +740,40 @@ public class MazeV2 extends JPanel {
         addSectionTitle(sidebar, "MAP GENERATOR");
         JButton btnGen = createModernButton("Generate New Map", new Color(46, 204, 113));
         JButton btnClear = createModernButton("Clear Lines", new Color(231, 76, 60));
+        JButton btnSave = createModernButton("Save Map", new Color(52, 152, 219));
+        JButton btnLoad = createModernButton("Load Map", new Color(52, 152, 219));
         btnGen.addActionListener(e -> gamePanel.generateComplexMaze());
-        btnClear.addActionListener(e -> {
-            gamePanel.activePaths.clear();
-            gamePanel.currentVisited.clear();
-            gamePanel.resetAllStats();
-            gamePanel.repaint();
+        btnClear.addActionListener(e -> gamePanel.clearLines());
+        JFileChooser chooser = new JFileChooser(".");
+        btnSave.addActionListener(e -> {
+            if (chooser.showSaveDialog(frame) == JFileChooser.APPROVE_OPTION) gamePanel.saveMaze(chooser.getSelectedFile().toPath());
+        });
+        btnLoad.addActionListener(e -> {
+            if (chooser.showOpenDialog(frame) == JFileChooser.APPROVE_OPTION) gamePanel.loadMaze(chooser.getSelectedFile().toPath());
         });
         sidebar.add(btnGen); sidebar.add(Box.createVerticalStrut(5)); sidebar.add(btnClear);
+        sidebar.add(Box.createVerticalStrut(5)); sidebar.add(btnSave);
+        sidebar.add(Box.createVerticalStrut(5)); sidebar.add(btnLoad);
+        sidebar.add(Box.createVerticalStrut(15));
+
+        addSectionTitle(sidebar, "VIEW (CTRL+WHEEL)");
+        JButton btnZoomIn = createModernButton("Zoom In", new Color(100, 100, 100));
+        JButton btnZoomOut = createModernButton("Zoom Out", new Color(100, 100, 100));
+        btnZoomIn.addActionListener(e -> gamePanel.zoom(true, null));
+        btnZoomOut.addActionListener(e -> gamePanel.zoom(false, null));
+        sidebar.add(btnZoomIn); sidebar.add(Box.createVerticalStrut(5)); sidebar.add(btnZoomOut);
+        sidebar.add(Box.createVerticalStrut(15));
+
+        addSectionTitle(sidebar, "PLAYBACK SPEED");
+        JSlider speedSlider = new JSlider(1, 50, 1);
+        speedSlider.setBackground(new Color(40, 40, 45));
+        speedSlider.addChangeListener(e -> gamePanel.setPlaybackSpeed(speedSlider.getValue()));
+        JCheckBox chkInstant = new JCheckBox("Instant");
+        chkInstant.setBackground(new Color(40, 40, 45));
+        chkInstant.setForeground(Color.LIGHT_GRAY);
+        chkInstant.setAlignmentX(Component.CENTER_ALIGNMENT);
+        chkInstant.addActionListener(e -> gamePanel.setInstantPlayback(chkInstant.isSelected()));
+        sidebar.add(speedSlider); sidebar.add(chkInstant);
         sidebar.add(Box.createVerticalStrut(15));
 
         addSectionTitle(sidebar, "ALGORITHMS");
@@ -442,27 +781,44 @@ public class MazeV2 extends JPanel {
         JButton btnDFS = createModernButton("DFS", new Color(200, 150, 0));
         JButton btnDijk = createModernButton("Dijkstra", new Color(200, 200, 200));
         JButton btnA = createModernButton("A*", new Color(255, 50, 80));
+        JComboBox<Algorithm> algoBox = new JComboBox<>();
+        for (Algorithm algo : Algorithm.values()) {
+            if (algo.ordinal() > Algorithm.ASTAR.ordinal()) algoBox.addItem(algo);
+        }
+        algoBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean selected, boolean focus) {
+                super.getListCellRendererComponent(list, value, index, selected, focus);
+                if (value instanceof Algorithm) setText(((Algorithm) value).label());
+                return this;
+            }
+        });
+        algoBox.setMaximumSize(new Dimension(220, 30));
+        algoBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+        JButton btnRunSelected = createModernButton("Run Selected", new Color(140, 100, 220));
+        JButton btnRace = createModernButton("Race All", new Color(52, 152, 219));
 
         btnBFS.addActionListener(e -> gamePanel.solveBFS());
         btnDFS.addActionListener(e -> gamePanel.solveDFS());
         btnDijk.addActionListener(e -> gamePanel.solveDijkstra());
         btnA.addActionListener(e -> gamePanel.solveAStar());
+        btnRunSelected.addActionListener(e -> gamePanel.solve((Algorithm) algoBox.getSelectedItem()));
+        btnRace.addActionListener(e -> gamePanel.raceAll());
 
         sidebar.add(btnBFS); sidebar.add(Box.createVerticalStrut(5));
         sidebar.add(btnDFS); sidebar.add(Box.createVerticalStrut(5));
         sidebar.add(btnDijk); sidebar.add(Box.createVerticalStrut(5));
-        sidebar.add(btnA); sidebar.add(Box.createVerticalStrut(20));
+        sidebar.add(btnA); sidebar.add(Box.createVerticalStrut(5));
+        sidebar.add(algoBox); sidebar.add(Box.createVerticalStrut(5));
+        sidebar.add(btnRunSelected); sidebar.add(Box.createVerticalStrut(5));
+        sidebar.add(btnRace); sidebar.add(Box.createVerticalStrut(20));
 
         addSectionTitle(sidebar, "STATISTICS");
-        statBFS = createStatLabel("BFS: -", COLOR_BFS);
-        statDFS = createStatLabel("DFS: -", COLOR_DFS);
-        statDijk = createStatLabel("Dijk: -", COLOR_DIJKSTRA);
-        statAStar = createStatLabel("A*: -", COLOR_ASTAR);
-
-        sidebar.add(statBFS);
-        sidebar.add(statDFS);
-        sidebar.add(statDijk);
-        sidebar.add(statAStar);
+        PATH_STYLES.forEach((algo, style) -> {
+            JLabel label = createStatLabel(style.shortName + ": -", style.color);
+            statLabels.put(algo, label);
+            sidebar.add(label);
+        });
         sidebar.add(Box.createVerticalStrut(20));
 
         lblStatus = new JLabel("Ready");
@@ -470,11 +826,18 @@ public class MazeV2 extends JPanel {
         lblStatus.setAlignmentX(Component.CENTER_ALIGNMENT);
         sidebar.add(lblStatus);
 
-        frame.add(sidebar, BorderLayout.EAST);
+        JScrollPane sideScroll = new JScrollPane(sidebar, ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        sideScroll.setBorder(null);
+        sideScroll.getVerticalScrollBar().setUnitIncrement(16);
+        int sideHeight = Math.min(sidebar.getPreferredSize().height, Math.max(mazeScroll.getViewport().getPreferredSize().height, 600));
+        sideScroll.setPreferredSize(new Dimension(270, sideHeight));
+        frame.add(sideScroll, BorderLayout.EAST);
         frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
+        // Started only once the window is showing, so constructing a panel never opens an audio line.
+        gamePanel.music.start();
     }
 
     private static void addSectionTitle(JPanel panel, String text) {
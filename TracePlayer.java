@@ -0,0 +1,77 @@
+import javax.swing.Timer;
+import maze.SearchTrace;
+
+/**
+ * Replays a recorded {@link SearchTrace} on the Swing timer: first the expansions, then the path.
+ * Runs entirely on the EDT, so listeners may publish render state without extra synchronisation.
+ */
+final class TracePlayer {
+
+    interface Listener {
+        void onFrame(SearchTrace trace, int visitedCount, int pathLength);
+        void onFinished(SearchTrace trace);
+    }
+
+    private static final int TICK_MS = 16;
+
+    private final Timer timer;
+    private final Listener listener;
+    private final double scansPerMs, pathPerMs;
+
+    private SearchTrace trace;
+    private int visited, pathShown;
+    private double budget;
+    private int speed = 1;
+    private boolean instant;
+
+    /** Base rates match the old in-loop sleeps: one expansion per {@code scanDelay} ms, one path cell per {@code pathDelay} ms. */
+    TracePlayer(int scanDelay, int pathDelay, Listener listener) {
+        this.listener = listener;
+        this.scansPerMs = 1.0 / scanDelay;
+        this.pathPerMs = 1.0 / pathDelay;
+        this.timer = new Timer(TICK_MS, e -> tick());
+    }
+
+    void setSpeed(int multiplier) { this.speed = Math.max(1, multiplier); }
+    void setInstant(boolean instant) { this.instant = instant; }
+    boolean isPlaying() { return trace != null; }
+
+    void play(SearchTrace trace) {
+        stop();
+        this.trace = trace;
+        visited = 0; pathShown = 0; budget = 0;
+        if (instant) { finish(); return; }
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+        trace = null;
+    }
+
+    private void tick() {
+        if (trace == null) return;
+        if (instant) { finish(); return; }
+        int total = trace.expansions.length, path = trace.result.path.length;
+        if (visited < total) {
+            budget += TICK_MS * scansPerMs * speed;
+            int step = (int) budget; budget -= step;
+            visited = Math.min(total, visited + step);
+            if (visited == total) budget = 0;
+        } else if (pathShown < path) {
+            budget += TICK_MS * pathPerMs * speed;
+            int step = (int) budget; budget -= step;
+            pathShown = Math.min(path, pathShown + step);
+        }
+        listener.onFrame(trace, visited, pathShown);
+        if (visited == total && pathShown == path) finish();
+    }
+
+    private void finish() {
+        SearchTrace done = trace;
+        timer.stop();
+        trace = null;
+        listener.onFrame(done, done.expansions.length, done.result.path.length);
+        listener.onFinished(done);
+    }
+}
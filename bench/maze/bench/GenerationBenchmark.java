@@ -0,0 +1,39 @@
+package maze.bench;
+
+import maze.EllerGenerator;
+import maze.MazeGenerator;
+import maze.MazeGrid;
+import maze.TerrainMix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GenerationBenchmark {
+
+    @Param({"101", "501", "1001"})
+    public int size;
+
+    @Param({"BALANCED", "GRASS", "SWAMP"})
+    public TerrainMix mix;
+
+    @Param({"PRIM", "ELLER"})
+    public String generator;
+
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() { random = new Random(42); }
+
+    @Benchmark
+    public MazeGrid generate() {
+        if (generator.equals("ELLER")) return new EllerGenerator(random).mix(mix).generate(size, size, 1, 1, size - 2, size - 2);
+        return new MazeGenerator(random).mix(mix).generate(size, size, 1, 1, size - 2, size - 2);
+    }
+}
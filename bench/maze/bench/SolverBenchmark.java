@@ -0,0 +1,51 @@
+package maze.bench;
+
+import maze.Algorithm;
+import maze.MazeGenerator;
+import maze.MazeGrid;
+import maze.MazeSolver;
+import maze.QueueMode;
+import maze.SolveResult;
+import maze.TerrainMix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Per-query latency of each solver on a fixed-seed maze. Run with {@code -prof gc} for allocation rate. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"101", "501", "1001"})
+    public int size;
+
+    @Param({"BALANCED", "GRASS", "SWAMP"})
+    public TerrainMix mix;
+
+    @Param({"BFS", "DFS", "DIJKSTRA", "ASTAR", "BI_DIJKSTRA", "BI_ASTAR", "CORRIDOR_DIJKSTRA", "CORRIDOR_ASTAR", "HPA_STAR", "ALT", "PARALLEL_BFS"})
+    public Algorithm algorithm;
+
+    @Param({"AUTO", "HEAP"})
+    public QueueMode queue;
+
+    private MazeSolver solver;
+    private int start, exit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeGrid grid = new MazeGenerator(new Random(42)).mix(mix).generate(size, size, 1, 1, size - 2, size - 2);
+        solver = new MazeSolver(grid);
+        solver.setRandom(new Random(7));
+        solver.setQueueMode(queue);
+        start = grid.index(1, 1);
+        exit = grid.index(size - 2, size - 2);
+    }
+
+    @Benchmark
+    public SolveResult solve() { return solver.solve(algorithm, start, exit); }
+}
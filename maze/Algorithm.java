@@ -0,0 +1,23 @@
+package maze;
+
+public enum Algorithm {
+    BFS("BFS"),
+    DFS("DFS"),
+    DIJKSTRA("Dijkstra"),
+    ASTAR("A*"),
+    BI_DIJKSTRA("Bi-Dijkstra"),
+    BI_ASTAR("Bi-A*"),
+    CORRIDOR_DIJKSTRA("Corridor Dijkstra"),
+    CORRIDOR_ASTAR("Corridor A*"),
+    HPA_STAR("HPA*"),
+    ALT("ALT"),
+    PARALLEL_BFS("Parallel BFS"),
+    LPA_STAR("LPA*"),
+    FLOW_FIELD("Flow field");
+
+    private final String label;
+
+    Algorithm(String label) { this.label = label; }
+
+    public String label() { return label; }
+}
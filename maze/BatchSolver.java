@@ -0,0 +1,200 @@
+package maze;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Answers many (start, exit, algorithm) queries against one maze in parallel on a {@link ForkJoinPool},
+ * behind a bounded LRU cache keyed by maze version plus query. Queries borrow a {@link MazeSolver} from a
+ * pool of at most one idle solver per worker, and ALT queries share one {@link LandmarkTable}. Both are
+ * released by {@link #reset}. The grid must not be edited while a batch is running; edits made between
+ * batches change {@link MazeGrid#modCount()} and so miss the cache.
+ *
+ * <p>A cached {@link SolveResult} is handed to every caller that asks the same query, path array included, so
+ * callers must treat results as read-only.
+ */
+public final class BatchSolver {
+
+    public static final class Query {
+        public final int start, exit;
+        public final Algorithm algorithm;
+
+        public Query(int start, int exit, Algorithm algorithm) {
+            this.start = start;
+            this.exit = exit;
+            this.algorithm = Objects.requireNonNull(algorithm);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Query)) return false;
+            Query q = (Query) o;
+            return start == q.start && exit == q.exit && algorithm == q.algorithm;
+        }
+
+        @Override
+        public int hashCode() { return (start * 31 + exit) * 31 + algorithm.ordinal(); }
+    }
+
+    private static final class Key {
+        final long gridId, modCount;
+        final Query query;
+
+        Key(MazeGrid grid, Query query) { this.gridId = grid.id(); this.modCount = grid.modCount(); this.query = query; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return gridId == k.gridId && modCount == k.modCount && query.equals(k.query);
+        }
+
+        @Override
+        public int hashCode() { return Long.hashCode(gridId * 31 + modCount) * 31 + query.hashCode(); }
+    }
+
+    /** Batches smaller than this run inline on the calling worker. */
+    private static final int SPLIT_THRESHOLD = 8;
+
+    private final ForkJoinPool pool;
+    private final Map<Key, SolveResult> cache;
+    private final ArrayDeque<MazeSolver> idle = new ArrayDeque<>();
+    private final int maxIdle;
+    private volatile MazeGrid grid;
+    /** Guards the landmark fields, so a table being built never blocks cache lookups. */
+    private final Object landmarkLock = new Object();
+    private CompletableFuture<LandmarkTable> landmarks;
+    private MazeGrid landmarksGrid;
+    private long landmarksModCount;
+    private long hits, misses;
+
+    public BatchSolver(MazeGrid grid, int cacheCapacity) { this(grid, cacheCapacity, ForkJoinPool.commonPool()); }
+
+    public BatchSolver(MazeGrid grid, int cacheCapacity, ForkJoinPool pool) {
+        this.grid = grid;
+        this.pool = pool;
+        this.maxIdle = pool.getParallelism();
+        this.cache = new LinkedHashMap<Key, SolveResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SolveResult> eldest) { return size() > cacheCapacity; }
+        };
+    }
+
+    /** Points the solver at a newly generated maze and drops every cached result, pooled solver and landmark table. */
+    public void reset(MazeGrid grid) {
+        this.grid = grid;
+        invalidate();
+        synchronized (idle) { idle.clear(); }
+        synchronized (landmarkLock) { landmarks = null; landmarksGrid = null; }
+    }
+
+    /** Shares tables built elsewhere; a table that is already stale is ignored and rebuilt on demand. */
+    public void setLandmarks(LandmarkTable tables) {
+        if (!tables.isCurrent()) return;
+        synchronized (landmarkLock) {
+            landmarks = CompletableFuture.completedFuture(tables);
+            landmarksGrid = tables.grid();
+            landmarksModCount = tables.grid().modCount();
+        }
+    }
+
+    public synchronized void invalidate() { cache.clear(); }
+
+    public synchronized long hits() { return hits; }
+    public synchronized long misses() { return misses; }
+    public synchronized int cachedResults() { return cache.size(); }
+
+    public SolveResult solve(Query query) {
+        MazeGrid g = grid;
+        Key key = new Key(g, query);
+        synchronized (this) {
+            SolveResult cached = cache.get(key);
+            if (cached != null) { hits++; return cached; }
+            misses++;
+        }
+        MazeSolver solver = borrow(g);
+        SolveResult result;
+        try {
+            if (query.algorithm == Algorithm.ALT) solver.setLandmarks(landmarksFor(g));
+            result = solver.solve(query.algorithm, query.start, query.exit);
+        } finally {
+            release(solver);
+        }
+        synchronized (this) { cache.put(key, result); }
+        return result;
+    }
+
+    /** Solves every query, in parallel where they miss the cache; results are in query order. */
+    public List<SolveResult> solveAll(List<Query> queries) {
+        SolveResult[] results = new SolveResult[queries.size()];
+        pool.invoke(new Slice(queries, results, 0, results.length));
+        return Arrays.asList(results);
+    }
+
+    private MazeSolver borrow(MazeGrid g) {
+        synchronized (idle) {
+            for (MazeSolver solver; (solver = idle.poll()) != null; ) if (solver.grid() == g) return solver;
+        }
+        return new MazeSolver(g);
+    }
+
+    /** Keeps {@code solver} for reuse unless the maze has moved on or enough solvers are already idle. */
+    private void release(MazeSolver solver) {
+        synchronized (idle) {
+            if (solver.grid() == grid && idle.size() < maxIdle) idle.push(solver);
+        }
+    }
+
+    /**
+     * Built at most once per maze version, outside any lock, by whichever query needs it first; other ALT
+     * queries wait for that build while everything else carries on. A failed build is forgotten so the next
+     * query retries it.
+     */
+    private LandmarkTable landmarksFor(MazeGrid g) {
+        CompletableFuture<LandmarkTable> tables;
+        boolean build;
+        synchronized (landmarkLock) {
+            build = landmarks == null || landmarksGrid != g || landmarksModCount != g.modCount();
+            if (build) { landmarks = new CompletableFuture<>(); landmarksGrid = g; landmarksModCount = g.modCount(); }
+            tables = landmarks;
+        }
+        if (!build) return tables.join();
+        try {
+            tables.complete(new LandmarkTable(g, LandmarkTable.DEFAULT_LANDMARKS));
+        } catch (RuntimeException | Error e) {
+            tables.completeExceptionally(e);
+            synchronized (landmarkLock) { if (landmarks == tables) landmarks = null; }
+            throw e;
+        }
+        return tables.join();
+    }
+
+    private final class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Query> queries;
+        private final SolveResult[] results;
+        private final int from, to;
+
+        Slice(List<Query> queries, SolveResult[] results, int from, int to) {
+            this.queries = queries; this.results = results; this.from = from; this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) results[i] = solve(queries.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Slice(queries, results, from, mid), new Slice(queries, results, mid, to));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Dial's monotone bucket queue. Valid when popped keys never decrease and every pushed key lies within
+ * {@code span} of the last popped key, which holds for Dijkstra (span = max edge cost) and for A* with a
+ * consistent heuristic (span = max edge cost + max heuristic drop per step). Push and pop are O(1)
+ * amortised; entries live in a pooled singly linked list per bucket so nothing is allocated per push.
+ */
+public final class BucketQueue implements IntPriorityQueue {
+    private final int[] heads;
+    private final int mask;
+    private int[] cells;
+    private int[] next;
+    private int poolTop, free = -1;
+    private int size, cursor;
+    private boolean started;
+
+    public BucketQueue(int span, int capacity) {
+        int buckets = Integer.highestOneBit(Math.max(2, span + 1) * 2 - 1);
+        heads = new int[buckets];
+        mask = buckets - 1;
+        capacity = Math.max(capacity, 16);
+        cells = new int[capacity];
+        next = new int[capacity];
+        clear();
+    }
+
+    @Override public boolean isEmpty() { return size == 0; }
+    @Override public int size() { return size; }
+    @Override public int lastKey() { return cursor; }
+    /** Largest distance a pushed key may lie above the current minimum. */
+    public int span() { return mask; }
+
+    @Override
+    public void clear() {
+        Arrays.fill(heads, -1);
+        poolTop = 0; free = -1;
+        size = 0; cursor = 0; started = false;
+    }
+
+    @Override
+    public void push(int cell, int key) {
+        if (!started) { cursor = key; started = true; }
+        else if (key < cursor || key - cursor > mask) throw new IllegalStateException("Key " + key + " outside bucket window at " + cursor);
+        int e;
+        if (free >= 0) { e = free; free = next[e]; }
+        else {
+            if (poolTop == cells.length) { cells = Arrays.copyOf(cells, poolTop << 1); next = Arrays.copyOf(next, poolTop << 1); }
+            e = poolTop++;
+        }
+        int b = key & mask;
+        cells[e] = cell; next[e] = heads[b]; heads[b] = e;
+        size++;
+    }
+
+    @Override
+    public int peekKey() {
+        int key = cursor;
+        while (heads[key & mask] < 0) key++;
+        return key;
+    }
+
+    @Override
+    public int pop() {
+        int b = cursor & mask;
+        while (heads[b] < 0) { cursor++; b = cursor & mask; }
+        int e = heads[b];
+        heads[b] = next[e];
+        next[e] = free; free = e;
+        size--;
+        return cells[e];
+    }
+}
@@ -0,0 +1,333 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * HPA*-style two-level abstraction. The grid is cut into square clusters; every maximal run of open cell pairs
+ * across a cluster border becomes one entrance (its middle pair), and each cluster caches the exact in-cluster
+ * cost between all of its entrance cells. A query links start and exit into their clusters, runs A* over the
+ * entrance graph, then refines each abstract hop with a search confined to one cluster.
+ *
+ * <p>When start and exit lie in the same or neighbouring clusters, a plain A* confined to the rectangle those
+ * clusters span also runs and the cheaper path wins, so nearby cells on either side of a border are joined
+ * directly rather than through an entrance midpoint. Paths are otherwise near-optimal rather than optimal: a
+ * detour that leaves and re-enters a cluster between two entrances, or crosses a border away from the entrance
+ * midpoint, is not considered. After an edit reported
+ * through {@link #cellChanged} only the edited cluster, plus the neighbour sharing the border when the cell
+ * lies on one, is rebuilt. Any other terrain change rebuilds every cluster on the next query.
+ */
+public final class ClusterHierarchy {
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final MazeGrid grid;
+    private final int size, rows, cols, clusterRows, clusterCols, clusters;
+    private final int[][] nodes, partners, intra;
+    private final boolean[] dirty;
+    private boolean anyDirty = true;
+    private long knownModCount;
+
+    private int[] offset;
+    private int[] abstractCell, abstractCluster, partnerId;
+    private int[] g, parent;
+    private final IntMinHeap heap = new IntMinHeap(64);
+
+    private final int[] ldist, lparent;
+    private final IntMinHeap lheap;
+    /** Scratch for the A* over two neighbouring clusters, by index within a 2x2-cluster box; allocated on first use. */
+    private int[] bdist, bparent;
+    private int expanded;
+    private SearchListener listener;
+    /** Counters of the running query; cluster rebuilds count into {@code buildStats} instead. */
+    private SearchStats stats;
+    private final SearchStats buildStats = new SearchStats();
+
+    public ClusterHierarchy(MazeGrid grid) { this(grid, DEFAULT_CLUSTER_SIZE); }
+
+    public ClusterHierarchy(MazeGrid grid, int clusterSize) {
+        if (clusterSize < 2) throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        this.grid = grid;
+        this.size = clusterSize;
+        this.rows = grid.rows();
+        this.cols = grid.cols();
+        this.clusterRows = (rows + size - 1) / size;
+        this.clusterCols = (cols + size - 1) / size;
+        this.clusters = clusterRows * clusterCols;
+        nodes = new int[clusters][];
+        partners = new int[clusters][];
+        intra = new int[clusters][];
+        dirty = new boolean[clusters];
+        Arrays.fill(dirty, true);
+        ldist = new int[size * size];
+        lparent = new int[size * size];
+        lheap = new IntMinHeap(size * 4);
+        knownModCount = grid.modCount();
+    }
+
+    public MazeGrid grid() { return grid; }
+    public int clusterSize() { return size; }
+
+    /** Number of entrance nodes in the abstract graph, rebuilding dirty clusters first. */
+    public int abstractNodeCount() { stats = buildStats; refresh(); return offset[clusters]; }
+
+    /** Marks the cluster(s) whose abstraction depends on {@code cell} for rebuilding on the next query. */
+    public void cellChanged(int cell) {
+        long mod = grid.modCount();
+        if (mod != knownModCount && mod != knownModCount + 1) Arrays.fill(dirty, true);
+        knownModCount = mod;
+        int r = cell / cols, c = cell - r * cols, cr = r / size, cc = c / size;
+        markDirty(cr, cc);
+        if (r == cr * size && cr > 0) markDirty(cr - 1, cc);
+        if (r == Math.min(rows, (cr + 1) * size) - 1 && cr < clusterRows - 1) markDirty(cr + 1, cc);
+        if (c == cc * size && cc > 0) markDirty(cr, cc - 1);
+        if (c == Math.min(cols, (cc + 1) * size) - 1 && cc < clusterCols - 1) markDirty(cr, cc + 1);
+    }
+
+    public SolveResult solve(int start, int goal, SearchListener listener) {
+        return solve(start, goal, listener, new SearchStats());
+    }
+
+    /** As {@link #solve(int, int, SearchListener)}; pushes and stale pops of every level are counted into {@code stats}. */
+    public SolveResult solve(int start, int goal, SearchListener listener, SearchStats stats) {
+        this.stats = buildStats;
+        refresh();
+        this.stats = stats;
+        this.listener = listener;
+        expanded = 0;
+        if (start == goal) return new SolveResult(true, new int[]{start}, 0, 0);
+        int cs = clusterOf(start), ct = clusterOf(goal);
+        SolveResult near = nearby(cs, ct) ? boxSearch(cs, ct, start, goal) : null;
+        int total = offset[clusters], startId = total, goalId = total + 1;
+        if (g == null || g.length < total + 2) { g = new int[total + 2]; parent = new int[total + 2]; }
+        Arrays.fill(g, 0, total + 2, INF);
+        heap.clear();
+        int gr = goal / cols, gc = goal - gr * cols;
+
+        int[] goalNodes = nodes[ct];
+        int[] toGoal = new int[goalNodes.length];
+        localSearch(ct, goal, -1, true);
+        for (int j = 0; j < goalNodes.length; j++) toGoal[j] = ldist[local(ct, goalNodes[j])];
+
+        localSearch(cs, start, -1, false);
+        for (int i = 0; i < nodes[cs].length; i++) {
+            int d = ldist[local(cs, nodes[cs][i])], id = offset[cs] + i;
+            if (d < g[id]) { g[id] = d; parent[id] = startId; heap.push(id, d + manhattan(nodes[cs][i], gr, gc)); stats.push(heap.size()); }
+        }
+
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            if (u == goalId) {
+                if (heap.lastKey() > g[goalId]) { stats.stale(); continue; }
+                if (near != null && near.cost <= g[goalId]) break;
+                return refine(start, goal, startId, goalId);
+            }
+            if (near != null && heap.lastKey() >= near.cost) break;
+            int ucell = abstractCell[u];
+            if (heap.lastKey() > g[u] + manhattan(ucell, gr, gc)) { stats.stale(); continue; }
+            expand(ucell);
+            int cl = abstractCluster[u], i = u - offset[cl], k = nodes[cl].length;
+            int[] costs = intra[cl];
+            for (int j = 0; j < k; j++) {
+                int c = costs[i * k + j];
+                if (j != i && c < INF) relax(u, offset[cl] + j, g[u] + c, gr, gc);
+            }
+            int p = partnerId[u];
+            if (p >= 0) relax(u, p, g[u] + grid.cost(abstractCell[p]), gr, gc);
+            if (cl == ct && toGoal[i] < INF && g[u] + toGoal[i] < g[goalId]) {
+                g[goalId] = g[u] + toGoal[i]; parent[goalId] = u; heap.push(goalId, g[goalId]); stats.push(heap.size());
+            }
+        }
+        return near != null ? new SolveResult(true, near.path, near.cost, expanded) : SolveResult.notFound(expanded);
+    }
+
+    private boolean nearby(int cs, int ct) {
+        return Math.abs(cs / clusterCols - ct / clusterCols) <= 1 && Math.abs(cs % clusterCols - ct % clusterCols) <= 1;
+    }
+
+    /** Exact A* from start to goal confined to the rectangle spanned by clusters {@code cs} and {@code ct}; null if unreachable there. */
+    private SolveResult boxSearch(int cs, int ct, int start, int goal) {
+        int r0 = Math.min(cs / clusterCols, ct / clusterCols) * size, c0 = Math.min(cs % clusterCols, ct % clusterCols) * size;
+        int r1 = Math.min(rows, (Math.max(cs / clusterCols, ct / clusterCols) + 1) * size);
+        int c1 = Math.min(cols, (Math.max(cs % clusterCols, ct % clusterCols) + 1) * size);
+        int w = c1 - c0, n = (r1 - r0) * w, gr = goal / cols, gc = goal - gr * cols;
+        if (bdist == null) { bdist = new int[4 * size * size]; bparent = new int[4 * size * size]; }
+        Arrays.fill(bdist, 0, n, INF);
+        heap.clear();
+        int src = (start / cols - r0) * w + start % cols - c0, dst = (gr - r0) * w + gc - c0;
+        bdist[src] = 0; bparent[src] = -1; heap.push(src, manhattan(start, gr, gc)); stats.push(1);
+        while (!heap.isEmpty()) {
+            int l = heap.pop(), lr = l / w, lc = l - lr * w, cell = (r0 + lr) * cols + c0 + lc;
+            if (heap.lastKey() > bdist[l] + manhattan(cell, gr, gc)) { stats.stale(); continue; }
+            expand(cell);
+            if (l == dst) break;
+            for (int d = 0; d < 4; d++) {
+                int nr = lr + (d == 0 ? -1 : d == 1 ? 1 : 0), nc = lc + (d == 2 ? -1 : d == 3 ? 1 : 0);
+                if (nr < 0 || nr >= r1 - r0 || nc < 0 || nc >= w) continue;
+                int nb = (r0 + nr) * cols + c0 + nc, nl = nr * w + nc;
+                if (!grid.isOpen(nb)) continue;
+                int nd = bdist[l] + grid.cost(nb);
+                if (nd < bdist[nl]) { bdist[nl] = nd; bparent[nl] = l; heap.push(nl, nd + manhattan(nb, gr, gc)); stats.push(heap.size()); }
+            }
+        }
+        heap.clear();
+        if (bdist[dst] == INF) return null;
+        int len = 0;
+        for (int l = dst; l != -1; l = bparent[l]) len++;
+        int[] path = new int[len];
+        for (int l = dst, i = len - 1; l != -1; l = bparent[l], i--) path[i] = (r0 + l / w) * cols + c0 + l % w;
+        return new SolveResult(true, path, bdist[dst], 0);
+    }
+
+    private void relax(int from, int to, int d, int gr, int gc) {
+        if (d < g[to]) { g[to] = d; parent[to] = from; heap.push(to, d + manhattan(abstractCell[to], gr, gc)); stats.push(heap.size()); }
+    }
+
+    /** Turns the abstract chain start -> entrances -> goal into a cell path, one in-cluster search per hop. */
+    private SolveResult refine(int start, int goal, int startId, int goalId) {
+        int hops = 0;
+        for (int v = goalId; v != startId; v = parent[v]) hops++;
+        int[] waypoints = new int[hops + 1];
+        for (int v = goalId, i = hops; i > 0; v = parent[v], i--) waypoints[i] = v == goalId ? goal : abstractCell[v];
+        waypoints[0] = start;
+
+        int[] path = new int[64];
+        int len = 0;
+        path[len++] = start;
+        int[] segment = new int[size * size];
+        for (int i = 1; i <= hops; i++) {
+            int a = waypoints[i - 1], b = waypoints[i];
+            if (a == b) continue;
+            int ca = clusterOf(a);
+            if (ca != clusterOf(b)) {
+                if (len == path.length) path = Arrays.copyOf(path, len << 1);
+                path[len++] = b;
+                continue;
+            }
+            localSearch(ca, a, b, false);
+            int k = 0;
+            for (int l = local(ca, b); l != local(ca, a); l = lparent[l]) segment[k++] = globalOf(ca, l);
+            if (len + k > path.length) path = Arrays.copyOf(path, Math.max(path.length << 1, len + k));
+            for (int j = k - 1; j >= 0; j--) path[len++] = segment[j];
+        }
+        path = Arrays.copyOf(path, len);
+        int cost = 0;
+        for (int i = 1; i < len; i++) cost += grid.cost(path[i]);
+        return new SolveResult(true, path, cost, expanded);
+    }
+
+    private void refresh() {
+        if (grid.modCount() != knownModCount) { Arrays.fill(dirty, true); anyDirty = true; knownModCount = grid.modCount(); }
+        if (!anyDirty) return;
+        for (int cl = 0; cl < clusters; cl++) if (dirty[cl]) { buildCluster(cl); dirty[cl] = false; }
+        anyDirty = false;
+
+        offset = new int[clusters + 1];
+        for (int cl = 0; cl < clusters; cl++) offset[cl + 1] = offset[cl] + nodes[cl].length;
+        int total = offset[clusters];
+        abstractCell = new int[total];
+        abstractCluster = new int[total];
+        partnerId = new int[total];
+        for (int cl = 0; cl < clusters; cl++) {
+            for (int i = 0; i < nodes[cl].length; i++) { abstractCell[offset[cl] + i] = nodes[cl][i]; abstractCluster[offset[cl] + i] = cl; }
+        }
+        for (int id = 0; id < total; id++) {
+            int cl = abstractCluster[id], cell = abstractCell[id], pcell = partners[cl][id - offset[cl]], pcl = clusterOf(pcell);
+            partnerId[id] = -1;
+            for (int j = 0; j < nodes[pcl].length; j++) {
+                if (nodes[pcl][j] == pcell && partners[pcl][j] == cell) { partnerId[id] = offset[pcl] + j; break; }
+            }
+        }
+    }
+
+    private void markDirty(int cr, int cc) { dirty[cr * clusterCols + cc] = true; anyDirty = true; }
+
+    private void buildCluster(int cl) {
+        int cr = cl / clusterCols, cc = cl % clusterCols;
+        int r0 = cr * size, c0 = cc * size, r1 = Math.min(rows, r0 + size), c1 = Math.min(cols, c0 + size);
+        int[] cells = new int[4 * size + 4], parts = new int[4 * size + 4];
+        int count = 0;
+        if (r0 > 0) count = scanBorder(cells, parts, count, r0 * cols + c0, (r0 - 1) * cols + c0, 1, c1 - c0);
+        if (r1 < rows) count = scanBorder(cells, parts, count, (r1 - 1) * cols + c0, r1 * cols + c0, 1, c1 - c0);
+        if (c0 > 0) count = scanBorder(cells, parts, count, r0 * cols + c0, r0 * cols + c0 - 1, cols, r1 - r0);
+        if (c1 < cols) count = scanBorder(cells, parts, count, r0 * cols + c1 - 1, r0 * cols + c1, cols, r1 - r0);
+        nodes[cl] = Arrays.copyOf(cells, count);
+        partners[cl] = Arrays.copyOf(parts, count);
+
+        int[] costs = new int[count * count];
+        for (int i = 0; i < count; i++) {
+            localSearch(cl, nodes[cl][i], -1, false);
+            for (int j = 0; j < count; j++) costs[i * count + j] = ldist[local(cl, nodes[cl][j])];
+        }
+        intra[cl] = costs;
+    }
+
+    /** Adds one entrance at the middle of every run where both {@code a + i*step} and {@code b + i*step} are open. */
+    private int scanBorder(int[] cells, int[] parts, int count, int a, int b, int step, int len) {
+        int runStart = -1;
+        for (int i = 0; i <= len; i++) {
+            boolean open = i < len && grid.isOpen(a + i * step) && grid.isOpen(b + i * step);
+            if (open && runStart < 0) runStart = i;
+            if (!open && runStart >= 0) {
+                int mid = (runStart + i - 1) >>> 1;
+                cells[count] = a + mid * step; parts[count] = b + mid * step; count++;
+                runStart = -1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Dijkstra confined to cluster {@code cl}, filling {@link #ldist}/{@link #lparent} by local index. Forward
+     * distances exclude the source's own cost; with {@code reverse} they are costs <em>to</em> the source instead.
+     * Stops early once {@code target} (a global cell, or -1 for none) is settled.
+     */
+    private void localSearch(int cl, int source, int target, boolean reverse) {
+        int cr = cl / clusterCols, cc = cl % clusterCols;
+        int r0 = cr * size, c0 = cc * size, r1 = Math.min(rows, r0 + size), c1 = Math.min(cols, c0 + size);
+        Arrays.fill(ldist, INF);
+        lheap.clear();
+        int src = local(cl, source);
+        ldist[src] = 0; lparent[src] = -1; lheap.push(src, 0); stats.push(1);
+        while (!lheap.isEmpty()) {
+            int l = lheap.pop(); if (lheap.lastKey() > ldist[l]) { stats.stale(); continue; }
+            expanded++;
+            int lr = l / size, lc = l - lr * size, cell = (r0 + lr) * cols + c0 + lc;
+            if (cell == target) return;
+            int leave = reverse ? grid.cost(cell) : 0;
+            for (int d = 0; d < 4; d++) {
+                int nr = r0 + lr + (d == 0 ? -1 : d == 1 ? 1 : 0), nc = c0 + lc + (d == 2 ? -1 : d == 3 ? 1 : 0);
+                if (nr < r0 || nr >= r1 || nc < c0 || nc >= c1) continue;
+                int nb = nr * cols + nc;
+                if (!grid.isOpen(nb)) continue;
+                int nl = (nr - r0) * size + (nc - c0);
+                int nd = ldist[l] + (reverse ? leave : grid.cost(nb));
+                if (nd < ldist[nl]) { ldist[nl] = nd; lparent[nl] = l; lheap.push(nl, nd); stats.push(lheap.size()); }
+            }
+        }
+    }
+
+    private void expand(int cell) {
+        expanded++;
+        if (listener != null) listener.onExpand(cell);
+    }
+
+    private int clusterOf(int cell) {
+        int r = cell / cols;
+        return (r / size) * clusterCols + (cell - r * cols) / size;
+    }
+
+    private int local(int cl, int cell) {
+        int r = cell / cols, c = cell - r * cols;
+        return (r - (cl / clusterCols) * size) * size + (c - (cl % clusterCols) * size);
+    }
+
+    private int globalOf(int cl, int l) {
+        return ((cl / clusterCols) * size + l / size) * cols + (cl % clusterCols) * size + l % size;
+    }
+
+    private int manhattan(int cell, int gr, int gc) {
+        int r = cell / cols;
+        return Math.abs(r - gr) + Math.abs(cell - r * cols - gc);
+    }
+}
@@ -0,0 +1,317 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * The maze reduced to its junctions. Dead-end branches are peeled away first (except for the terminal cells
+ * the graph is built for), then every remaining run of degree-2 corridor cells becomes a single weighted edge
+ * between the junctions, dead-ends or terminals at its ends. Entering a cell costs its terrain, so the edge
+ * {@code a -> b} costs the corridor interior plus {@code cost(b)}. Dijkstra or A* on this graph expands only
+ * junctions; {@link #solve} then walks the chosen corridors to return an ordinary cell path.
+ *
+ * <p>Any open cell can be a query endpoint, so one graph serves every query on a maze version. A pruned
+ * endpoint climbs its dead-end branch to the cell the branch hangs from. A corridor endpoint is joined to the
+ * junctions at both ends of its corridor by temporary edges that cost only the partial corridor.
+ */
+public final class CorridorGraph {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final MazeGrid grid;
+    private final long modCount;
+    private final int rows, cols;
+    private final long[] pruned;
+    private final int[] nodeOfCell;
+    /** For a pruned open cell, the neighbour its dead-end branch hangs from; -1 at the root of a branch with no junction. */
+    private final int[] hang;
+    private final int[] nodeCell;
+    private final int[] edgeStart;
+    private final int[] edgeTarget, edgeInterior;
+    private final byte[] edgeDir;
+
+    private final int[] dist, parentNode, parentEdge;
+    private final IntMinHeap heap;
+
+    /** Builds the graph; every cell in {@code terminals} is kept as a node so it can be a query endpoint. */
+    public CorridorGraph(MazeGrid grid, int... terminals) {
+        this.grid = grid;
+        this.modCount = grid.modCount();
+        this.rows = grid.rows();
+        this.cols = grid.cols();
+        int n = grid.size();
+        long[] terminal = new long[(n + 63) >>> 6];
+        for (int t : terminals) terminal[t >>> 6] |= 1L << t;
+
+        pruned = new long[(n + 63) >>> 6];
+        long[] popped = new long[(n + 63) >>> 6];
+        hang = new int[n];
+        int[] degree = new int[n];
+        int[] stack = new int[n];
+        int top = 0;
+        for (int cell = 0; cell < n; cell++) {
+            if (!grid.isOpen(cell)) { pruned[cell >>> 6] |= 1L << cell; continue; }
+            degree[cell] = openDegree(cell);
+        }
+        for (int cell = 0; cell < n; cell++) {
+            if (grid.isOpen(cell) && degree[cell] <= 1 && !isSet(terminal, cell)) { pruned[cell >>> 6] |= 1L << cell; stack[top++] = cell; }
+        }
+        while (top > 0) {
+            int cell = stack[--top];
+            int r = cell / cols, c = cell - r * cols;
+            popped[cell >>> 6] |= 1L << cell;
+            hang[cell] = -1;
+            for (int d = 0; d < 4; d++) {
+                int nb = neighbour(cell, r, c, d);
+                // A cell is pruned with at most one open neighbour still unpopped; that is the one it hangs from.
+                if (nb >= 0 && grid.isOpen(nb) && !isSet(popped, nb)) hang[cell] = nb;
+                if (nb < 0 || isSet(pruned, nb)) continue;
+                if (--degree[nb] <= 1 && !isSet(terminal, nb)) { pruned[nb >>> 6] |= 1L << nb; stack[top++] = nb; }
+            }
+        }
+
+        nodeOfCell = new int[n];
+        Arrays.fill(nodeOfCell, -1);
+        int nodes = 0;
+        for (int cell = 0; cell < n; cell++) {
+            if (!isSet(pruned, cell) && (degree[cell] != 2 || isSet(terminal, cell))) nodeOfCell[cell] = nodes++;
+        }
+        nodeCell = new int[nodes];
+        for (int cell = 0; cell < n; cell++) if (nodeOfCell[cell] >= 0) nodeCell[nodeOfCell[cell]] = cell;
+
+        edgeStart = new int[nodes + 1];
+        int[] target = new int[nodes * 4], interior = new int[nodes * 4];
+        byte[] dir = new byte[nodes * 4];
+        int edges = 0;
+        for (int node = 0; node < nodes; node++) {
+            edgeStart[node] = edges;
+            int cell = nodeCell[node], r = cell / cols, c = cell - r * cols;
+            for (int d = 0; d < 4; d++) {
+                int nb = neighbour(cell, r, c, d);
+                if (nb < 0 || isSet(pruned, nb)) continue;
+                int prev = cell, cur = nb, sum = 0;
+                while (nodeOfCell[cur] < 0) {
+                    sum += grid.cost(cur);
+                    int next = corridorNext(cur, prev);
+                    if (next < 0) break;
+                    prev = cur; cur = next;
+                }
+                if (nodeOfCell[cur] < 0 || cur == cell) continue;
+                target[edges] = nodeOfCell[cur]; interior[edges] = sum; dir[edges] = (byte) d;
+                edges++;
+            }
+        }
+        edgeStart[nodes] = edges;
+        edgeTarget = Arrays.copyOf(target, edges);
+        edgeInterior = Arrays.copyOf(interior, edges);
+        edgeDir = Arrays.copyOf(dir, edges);
+
+        dist = new int[nodes + 2];
+        parentNode = new int[nodes + 2];
+        parentEdge = new int[nodes + 2];
+        heap = new IntMinHeap(Math.max(16, nodes + 2));
+    }
+
+    public MazeGrid grid() { return grid; }
+    /** True while the grid still has the terrain this graph was built from. */
+    public boolean isCurrent() { return grid.modCount() == modCount; }
+    public boolean isNode(int cell) { return nodeOfCell[cell] >= 0; }
+    public int nodeCount() { return nodeCell.length; }
+    public int edgeCount() { return edgeTarget.length; }
+
+    /**
+     * Dijkstra ({@code heuristic == false}) or A* with Manhattan distance over the junction graph. An edge costs at
+     * least one per cell it spans, so the heuristic stays consistent. {@code expanded} counts junctions plus the
+     * two endpoints. Endpoints may be any open cells; a wall endpoint is simply not found.
+     */
+    public SolveResult solve(int start, int goal, boolean heuristic, SearchListener listener) {
+        return solve(start, goal, heuristic, listener, new SearchStats());
+    }
+
+    /** As {@link #solve(int, int, boolean, SearchListener)}, counting pushes and stale pops into {@code stats}. */
+    public SolveResult solve(int start, int goal, boolean heuristic, SearchListener listener, SearchStats stats) {
+        if (!grid.isOpen(start) || !grid.isOpen(goal)) return SolveResult.notFound(0);
+        Cells up = climb(start), down = climb(goal);
+        int a = up.last(), b = down.last();
+        // Same branch, or branches hanging from the same cell: any route leaving the branch must come back the
+        // same way, so the tree path is the answer.
+        if (a == b) return treePath(up, down);
+        if (isSet(pruned, a) || isSet(pruned, b)) return SolveResult.notFound(0);
+
+        Portal from = new Portal(a, b), to = new Portal(b, -1);
+        int upCost = up.costAfterFirst(), downCost = down.costBeforeLast();
+        int S = nodeCell.length, T = S + 1;
+        int gr = goal / cols, gc = goal - gr * cols;
+        Arrays.fill(dist, INF);
+        heap.clear();
+        dist[S] = 0; parentNode[S] = -1;
+        heap.push(S, heuristic ? manhattan(start, gr, gc) : 0); stats.push(1);
+        int expanded = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            int uCell = u == S ? start : u == T ? goal : nodeCell[u];
+            int h = heuristic ? manhattan(uCell, gr, gc) : 0;
+            if (heap.lastKey() > dist[u] + h) { stats.stale(); continue; }
+            expanded++;
+            if (listener != null) listener.onExpand(uCell);
+            if (u == T) return new SolveResult(true, assemble(S, T, up, down, from, to), dist[T], expanded);
+            if (u == S) {
+                for (int k = 0; k < from.count; k++) {
+                    int v = from.node[k] < 0 ? T : from.node[k];
+                    int nd = upCost + from.cost[k] + (v == T ? downCost : 0);
+                    relax(u, v, -1 - k, nd, heuristic, v == T ? goal : nodeCell[v], gr, gc, stats);
+                }
+                continue;
+            }
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                relax(u, v, e, dist[u] + edgeInterior[e] + grid.cost(nodeCell[v]), heuristic, nodeCell[v], gr, gc, stats);
+            }
+            for (int k = 0; k < to.count; k++) {
+                if (to.node[k] == u) relax(u, T, -1 - k, dist[u] + to.reverseCost[k] + downCost, heuristic, goal, gr, gc, stats);
+            }
+        }
+        return SolveResult.notFound(expanded);
+    }
+
+    private void relax(int u, int v, int edge, int nd, boolean heuristic, int vCell, int gr, int gc, SearchStats stats) {
+        if (nd >= dist[v]) return;
+        dist[v] = nd; parentNode[v] = u; parentEdge[v] = edge;
+        heap.push(v, nd + (heuristic ? manhattan(vCell, gr, gc) : 0)); stats.push(heap.size());
+    }
+
+    /**
+     * Temporary edges from a cell of the unpruned graph to the junctions at either end of its corridor; a
+     * junction cell links to itself at no cost. Walking from a corridor cell also notes {@code other} if it lies
+     * inside the same corridor, as a direct link with node -1; an {@code other} that is itself a node is already
+     * reached through that node's link, so each of the at most two walks adds at most two links. Costs are for
+     * walking away from {@code cell}; {@code reverseCost} is for walking back to it.
+     */
+    private final class Portal {
+        final int[] node = new int[4], cost = new int[4], reverseCost = new int[4];
+        final Cells[] cells = new Cells[4];
+        int count;
+
+        Portal(int cell, int other) {
+            if (nodeOfCell[cell] >= 0) { add(nodeOfCell[cell], 0, 0, new Cells()); return; }
+            int r = cell / cols, c = cell - r * cols;
+            for (int d = 0; d < 4; d++) {
+                int nb = neighbour(cell, r, c, d);
+                if (nb < 0 || isSet(pruned, nb)) continue;
+                Cells walk = new Cells();
+                int prev = cell, cur = nb, sum = 0;
+                while (cur != cell) {
+                    walk.add(cur);
+                    sum += grid.cost(cur);
+                    if (cur == other && nodeOfCell[cur] < 0) add(-1, sum, 0, walk.copy());
+                    if (nodeOfCell[cur] >= 0) { add(nodeOfCell[cur], sum, sum - grid.cost(cur) + grid.cost(cell), walk); break; }
+                    int next = corridorNext(cur, prev);
+                    if (next < 0) break;
+                    prev = cur; cur = next;
+                }
+            }
+        }
+
+        private void add(int n, int c, int rc, Cells path) {
+            node[count] = n; cost[count] = c; reverseCost[count] = rc; cells[count] = path; count++;
+        }
+    }
+
+    /** {@code cell} followed by the dead-end branch it sits on, up to the cell the branch hangs from. */
+    private Cells climb(int cell) {
+        Cells chain = new Cells();
+        chain.add(cell);
+        while (isSet(pruned, cell) && hang[cell] >= 0) { cell = hang[cell]; chain.add(cell); }
+        return chain;
+    }
+
+    /** The path through a shared branch: up from the start to the first cell the goal's chain also reaches, then down. */
+    private SolveResult treePath(Cells up, Cells down) {
+        int j = 0, i = -1;
+        for (; j < down.size; j++) if ((i = up.indexOf(down.at(j))) >= 0) break;
+        Cells path = new Cells();
+        for (int k = 0; k <= i; k++) path.add(up.at(k));
+        for (int k = j - 1; k >= 0; k--) path.add(down.at(k));
+        int cost = 0;
+        for (int k = 1; k < path.size; k++) cost += grid.cost(path.at(k));
+        return new SolveResult(true, path.toArray(), cost, path.size);
+    }
+
+    private int[] assemble(int S, int T, Cells up, Cells down, Portal from, Portal to) {
+        Cells nodes = new Cells();
+        for (int v = T; v != -1; v = parentNode[v]) nodes.add(v);
+        Cells path = new Cells();
+        for (int k = 0; k < up.size; k++) path.add(up.at(k));
+        for (int i = nodes.size - 1; i > 0; i--) {
+            int u = nodes.at(i), v = nodes.at(i - 1), e = parentEdge[v];
+            if (u == S) {
+                path.addAll(from.cells[-1 - e]);
+            } else if (v == T) {
+                Cells walk = to.cells[-1 - e];
+                for (int k = walk.size - 2; k >= 0; k--) path.add(walk.at(k));
+                if (walk.size > 0) path.add(down.last());
+            } else {
+                appendCorridor(path, e, u);
+            }
+        }
+        for (int k = down.size - 2; k >= 0; k--) path.add(down.at(k));
+        return path.toArray();
+    }
+
+    /** Appends the interior cells of edge {@code e} leaving node {@code u}, then the node it leads to. */
+    private void appendCorridor(Cells path, int e, int u) {
+        int from = nodeCell[u], r = from / cols, c = from - r * cols;
+        int prev = from, cur = neighbour(from, r, c, edgeDir[e]);
+        while (nodeOfCell[cur] < 0) { path.add(cur); int next = corridorNext(cur, prev); prev = cur; cur = next; }
+        path.add(cur);
+    }
+
+    /** Growable list of cells. */
+    private final class Cells {
+        int[] data = new int[16];
+        int size;
+
+        void add(int cell) { if (size == data.length) data = Arrays.copyOf(data, size * 2); data[size++] = cell; }
+        void addAll(Cells other) { for (int k = 0; k < other.size; k++) add(other.data[k]); }
+        int at(int i) { return data[i]; }
+        int last() { return data[size - 1]; }
+        int indexOf(int cell) { for (int k = 0; k < size; k++) if (data[k] == cell) return k; return -1; }
+        int[] toArray() { return Arrays.copyOf(data, size); }
+        Cells copy() { Cells c = new Cells(); c.data = Arrays.copyOf(data, Math.max(16, size)); c.size = size; return c; }
+        /** Cost of walking this chain from its first cell to its last. */
+        int costAfterFirst() { int sum = 0; for (int k = 1; k < size; k++) sum += grid.cost(data[k]); return sum; }
+        /** Cost of walking this chain from its last cell back to its first. */
+        int costBeforeLast() { int sum = 0; for (int k = 0; k < size - 1; k++) sum += grid.cost(data[k]); return sum; }
+    }
+
+    /** The one unpruned neighbour of corridor cell {@code cur} other than {@code prev}, or -1. */
+    private int corridorNext(int cur, int prev) {
+        int r = cur / cols, c = cur - r * cols;
+        for (int d = 0; d < 4; d++) {
+            int nb = neighbour(cur, r, c, d);
+            if (nb >= 0 && nb != prev && !isSet(pruned, nb)) return nb;
+        }
+        return -1;
+    }
+
+    private int openDegree(int cell) {
+        int r = cell / cols, c = cell - r * cols, deg = 0;
+        for (int d = 0; d < 4; d++) { int nb = neighbour(cell, r, c, d); if (nb >= 0 && grid.isOpen(nb)) deg++; }
+        return deg;
+    }
+
+    /** Neighbour of {@code cell} in direction up, down, left, right (0..3), or -1 outside the grid. */
+    private int neighbour(int cell, int r, int c, int d) {
+        switch (d) {
+            case 0: return r > 0 ? cell - cols : -1;
+            case 1: return r < rows - 1 ? cell + cols : -1;
+            case 2: return c > 0 ? cell - 1 : -1;
+            default: return c < cols - 1 ? cell + 1 : -1;
+        }
+    }
+
+    private int manhattan(int cell, int gr, int gc) {
+        int r = cell / cols;
+        return Math.abs(r - gr) + Math.abs(cell - r * cols - gc);
+    }
+
+    private static boolean isSet(long[] bits, int i) { return (bits[i >>> 6] & (1L << i)) != 0; }
+}
@@ -0,0 +1,123 @@
+package maze;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static maze.MazeGrid.TYPE_GRASS;
+import static maze.MazeGrid.TYPE_WALL;
+
+/**
+ * Eller's algorithm: a perfect maze built one cell row at a time while tracking only which cells of the current
+ * row are already connected. Loop carving and terrain are decided as each row is emitted, so memory is
+ * O(cols) whatever the height. The layout matches {@link MazeGenerator}: cells sit at odd (row, col), with walls
+ * between them and around the border. The same seed always produces the same maze.
+ */
+public final class EllerGenerator {
+    private final Random rand;
+    private TerrainMix mix = TerrainMix.BALANCED;
+    private double loopChance = 0.15;
+
+    public EllerGenerator(Random rand) { this.rand = rand; }
+
+    public EllerGenerator mix(TerrainMix mix) { this.mix = mix; return this; }
+    public EllerGenerator loopChance(double loopChance) { this.loopChance = loopChance; return this; }
+
+    /** Generates into a {@link MazeGrid}; start and exit are always open grass. */
+    public MazeGrid generate(int rows, int cols, int startR, int startC, int exitR, int exitC) {
+        MazeGrid maze = new MazeGrid(rows, cols);
+        try {
+            generate(rows, cols, startR, startC, exitR, exitC, (r, row) -> {
+                for (int c = 0; c < cols; c++) maze.set(r, c, row[c]);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return maze;
+    }
+
+    /**
+     * Streams rows {@code 0..rows-1} into {@code sink} in order. Only a few arrays of length {@code cols} are held,
+     * so together with a {@link PackedGridWriter} this builds mazes larger than the heap.
+     */
+    public void generate(int rows, int cols, int startR, int startC, int exitR, int exitC, RowSink sink) throws IOException {
+        if (rows < 3 || cols < 3) throw new IllegalArgumentException("Maze must be at least 3x3: " + rows + "x" + cols);
+        int w = (cols - 1) / 2, h = (rows - 1) / 2;
+        // Set labels stay below w: a row never holds more than w distinct sets.
+        int[] set = new int[w], parent = new int[w], seen = new int[w], pick = new int[w];
+        boolean[] right = new boolean[w], down = new boolean[w], flag = new boolean[w];
+        byte[] row = new byte[cols];
+        for (int j = 0; j < w; j++) set[j] = j;
+
+        Arrays.fill(row, (byte) TYPE_WALL);
+        emit(0, row, startR, startC, exitR, exitC, sink);
+
+        for (int i = 0; i < h; i++) {
+            boolean last = i == h - 1;
+
+            // Join neighbouring cells of different sets at random; the last row joins them all.
+            for (int j = 0; j < w; j++) parent[j] = j;
+            for (int j = 0; j < w - 1; j++) {
+                int a = find(parent, set[j]), b = find(parent, set[j + 1]);
+                right[j] = a != b && (last || rand.nextBoolean());
+                if (right[j]) parent[b] = a;
+            }
+            for (int j = 0; j < w; j++) set[j] = find(parent, set[j]);
+
+            // Every set carries on downwards through at least one cell, picked by reservoir sampling.
+            if (!last) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(flag, false);
+                for (int j = 0; j < w; j++) {
+                    int l = set[j];
+                    down[j] = rand.nextBoolean();
+                    if (down[j]) flag[l] = true;
+                    if (rand.nextInt(++seen[l]) == 0) pick[l] = j;
+                }
+                for (int l = 0; l < w; l++) if (seen[l] > 0 && !flag[l]) down[pick[l]] = true;
+            }
+
+            int r = 2 * i + 1;
+            Arrays.fill(row, (byte) TYPE_WALL);
+            for (int j = 0; j < w; j++) {
+                row[2 * j + 1] = terrain();
+                if (j < w - 1 && (right[j] || rand.nextDouble() < loopChance)) row[2 * j + 2] = terrain();
+            }
+            emit(r, row, startR, startC, exitR, exitC, sink);
+
+            if (!last) {
+                Arrays.fill(row, (byte) TYPE_WALL);
+                for (int j = 0; j < w; j++) if (down[j] || rand.nextDouble() < loopChance) row[2 * j + 1] = terrain();
+                emit(r + 1, row, startR, startC, exitR, exitC, sink);
+
+                // Cells entered from above keep their set; the rest get the labels no longer in use.
+                Arrays.fill(flag, false);
+                for (int j = 0; j < w; j++) if (down[j]) flag[set[j]] = true;
+                for (int j = 0, free = 0; j < w; j++) {
+                    if (down[j]) continue;
+                    while (flag[free]) free++;
+                    set[j] = free; flag[free] = true;
+                }
+            }
+        }
+
+        for (int r = 2 * h; r < rows; r++) {
+            Arrays.fill(row, (byte) TYPE_WALL);
+            emit(r, row, startR, startC, exitR, exitC, sink);
+        }
+    }
+
+    private byte terrain() { return (byte) mix.pick(rand.nextDouble()); }
+
+    private static void emit(int r, byte[] row, int startR, int startC, int exitR, int exitC, RowSink sink) throws IOException {
+        if (r == startR) row[startC] = TYPE_GRASS;
+        if (r == exitR) row[exitC] = TYPE_GRASS;
+        sink.accept(r, row);
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) { parent[x] = parent[parent[x]]; x = parent[x]; }
+        return x;
+    }
+}
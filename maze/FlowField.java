@@ -0,0 +1,120 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Reverse Dijkstra from a fixed exit: for every open cell, its cost to reach the exit and the direction of the
+ * next step. An optimal path and its cost are then read off for any start in O(path length), with no search. The
+ * field is built on first use and rebuilt lazily the next time it is read after the grid's terrain changed.
+ *
+ * <p>Reads may come from any thread, and a rebuild publishes a fresh immutable field. Staleness is judged by
+ * {@link MazeGrid#modCount()}, which is volatile. A read that starts after an edit has finished therefore sees
+ * that edit. A read that overlaps an edit may still answer from the previous terrain.
+ */
+public final class FlowField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final byte NONE = -1, UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+
+    private static final class Field {
+        final long modCount;
+        final int[] dist;
+        final byte[] next;
+        final int settled;
+
+        Field(long modCount, int[] dist, byte[] next, int settled) { this.modCount = modCount; this.dist = dist; this.next = next; this.settled = settled; }
+    }
+
+    private final MazeGrid grid;
+    private final int exit;
+    private volatile Field field;
+
+    public FlowField(MazeGrid grid, int exit) {
+        this.grid = grid;
+        this.exit = exit;
+    }
+
+    public MazeGrid grid() { return grid; }
+    public int exit() { return exit; }
+
+    /** Cost of the cheapest path from {@code cell} to the exit, excluding {@code cell} itself, or {@link #UNREACHABLE}. */
+    public int distanceTo(int cell) { return current().dist[cell]; }
+
+    /** The neighbour to move to from {@code cell}, or -1 at the exit or when the exit is unreachable. */
+    public int nextStep(int cell) { return step(current(), cell); }
+
+    /**
+     * An optimal path from {@code start}, with the cost a Dijkstra query would return; on ties the path may
+     * differ from Dijkstra's. {@code expanded} counts the cells settled by a rebuild this call triggered, so it is
+     * 0 whenever the field was current. Measured like {@link MazeSolver#solve} and reported as
+     * {@link Algorithm#FLOW_FIELD}.
+     */
+    public SolveResult route(int start) {
+        SearchStats stats = new SearchStats();
+        SolveProbe probe = SolveProbe.start();
+        SolveResult result = route(start, stats);
+        probe.finish(Algorithm.FLOW_FIELD, grid, result, stats);
+        return result;
+    }
+
+    /** An unmeasured route counting rebuild work into {@code stats}, for a caller that measures the query itself. */
+    SolveResult route(int start, SearchStats stats) {
+        Field f = field;
+        int settled = 0;
+        if (f == null || f.modCount != grid.modCount()) { f = rebuild(stats); settled = f.settled; }
+        if (f.dist[start] == UNREACHABLE) return SolveResult.notFound(settled);
+        int len = 1;
+        for (int c = start; c != exit; c = step(f, c)) len++;
+        int[] path = new int[len];
+        for (int c = start, i = 0; i < len; c = step(f, c), i++) path[i] = c;
+        return new SolveResult(true, path, f.dist[start], settled);
+    }
+
+    private int step(Field f, int cell) {
+        switch (f.next[cell]) {
+            case UP: return cell - grid.cols();
+            case DOWN: return cell + grid.cols();
+            case LEFT: return cell - 1;
+            case RIGHT: return cell + 1;
+            default: return -1;
+        }
+    }
+
+    private Field current() {
+        Field f = field;
+        if (f == null || f.modCount != grid.modCount()) f = rebuild(new SearchStats());
+        return f;
+    }
+
+    private synchronized Field rebuild(SearchStats stats) {
+        Field f = field;
+        long version = grid.modCount();
+        if (f != null && f.modCount == version) return f;
+
+        int n = grid.size(), cols = grid.cols(), rows = grid.rows();
+        int[] dist = new int[n];
+        byte[] next = new byte[n];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(next, NONE);
+        BucketQueue pq = new BucketQueue(MazeGrid.MAX_OPEN_COST, Math.max(16, (rows + cols) * 4));
+        dist[exit] = 0; pq.push(exit, 0); stats.push(1);
+        int settled = 0;
+        while (!pq.isEmpty()) {
+            int cur = pq.pop(); if (pq.lastKey() > dist[cur]) { stats.stale(); continue; }
+            settled++;
+            int nd = dist[cur] + grid.cost(cur), r = cur / cols, c = cur - r * cols;
+            // A neighbour reaches the exit through cur by paying cur's terrain; its next step points back at cur.
+            if (r > 0) relax(cur - cols, nd, DOWN, dist, next, pq, stats);
+            if (r < rows - 1) relax(cur + cols, nd, UP, dist, next, pq, stats);
+            if (c > 0) relax(cur - 1, nd, RIGHT, dist, next, pq, stats);
+            if (c < cols - 1) relax(cur + 1, nd, LEFT, dist, next, pq, stats);
+        }
+        f = new Field(version, dist, next, settled);
+        field = f;
+        return f;
+    }
+
+    private void relax(int nb, int nd, byte dir, int[] dist, byte[] next, BucketQueue pq, SearchStats stats) {
+        if (grid.isOpen(nb) && nd < dist[nb]) { dist[nb] = nd; next[nb] = dir; pq.push(nb, nd); stats.push(pq.size()); }
+    }
+}
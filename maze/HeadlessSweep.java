@@ -0,0 +1,201 @@
+package maze;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless regression sweep: generates N seeded mazes, runs the chosen algorithms on each and streams one
+ * record per run as CSV or a JSON array. No Swing, audio, playback delays or repaints are involved.
+ *
+ * <p>Maze {@code i} is generated from seed {@code seed + i}, and DFS's tie-breaking uses the same seed, so a
+ * sweep is reproducible run for run. Mazes are generated and solved in parallel. Records are still written in
+ * maze order, so two sweeps can be diffed directly; only the timing columns differ.
+ *
+ * <p>Preprocessing that ALT, the corridor searches, HPA* and the flow field keep across queries is built first
+ * and reported as {@code prep_ms}; {@code wall_ms} and {@code cpu_ms} cover the query alone.
+ *
+ * <pre>
+ * java -cp out maze.HeadlessSweep --mazes 100 --size 501 --seed 42 --algorithms DIJKSTRA,ASTAR --format json --out sweep.json
+ * </pre>
+ */
+public final class HeadlessSweep {
+    private static final String USAGE = "Usage: HeadlessSweep [--mazes N] [--size R[xC]] [--seed S] [--algorithms A,B,...|all]"
+            + " [--generator prim|eller] [--mix BALANCED|GRASS|SWAMP] [--format csv|json] [--threads T] [--out FILE]";
+    private static final String[] COLUMNS = {"maze", "seed", "rows", "cols", "generator", "algorithm", "found", "steps", "cost",
+            "expanded", "pushed", "stale_pops", "peak_frontier", "prep_ms", "wall_ms", "cpu_ms"};
+
+    private int mazes = 10, rows = 101, cols = 101, threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 1;
+    private List<Algorithm> algorithms = List.of(Algorithm.values());
+    private boolean eller, json;
+    private TerrainMix mix = TerrainMix.BALANCED;
+    private String out;
+
+    public static void main(String[] args) {
+        HeadlessSweep sweep = new HeadlessSweep();
+        try {
+            sweep.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try (OutputStream os = sweep.out == null ? nonClosing(System.out) : new FileOutputStream(sweep.out)) {
+            sweep.run(os);
+        } catch (IOException | ExecutionException | InterruptedException e) {
+            System.err.println("Sweep failed: " + e);
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String flag = args[i];
+            if (flag.equals("--help") || flag.equals("-h")) throw new IllegalArgumentException("");
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            String value = args[++i];
+            switch (flag) {
+                case "--mazes": mazes = positive(flag, value); break;
+                case "--size": {
+                    int x = value.indexOf('x');
+                    rows = positive(flag, x < 0 ? value : value.substring(0, x));
+                    cols = x < 0 ? rows : positive(flag, value.substring(x + 1));
+                    break;
+                }
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--algorithms": algorithms = parseAlgorithms(value); break;
+                case "--generator": eller = choice(flag, value, "prim", "eller").equals("eller"); break;
+                case "--mix": mix = TerrainMix.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "--format": json = choice(flag, value, "csv", "json").equals("json"); break;
+                case "--threads": threads = positive(flag, value); break;
+                case "--out": out = value; break;
+                default: throw new IllegalArgumentException("Unknown option " + flag);
+            }
+        }
+        if (rows < 5 || cols < 5) throw new IllegalArgumentException("Size must be at least 5x5");
+    }
+
+    /**
+     * Keeps at most {@code 2 * threads} mazes in flight and writes each maze's records as soon as it and all
+     * earlier mazes are done.
+     */
+    private void run(OutputStream os) throws IOException, ExecutionException, InterruptedException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), 1 << 16);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sweep-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            if (json) w.write("[\n"); else w.write(String.join(",", COLUMNS) + "\n");
+            ArrayDeque<Future<List<String>>> inFlight = new ArrayDeque<>();
+            boolean first = true;
+            for (int next = 0; next < mazes || !inFlight.isEmpty(); ) {
+                while (next < mazes && inFlight.size() < 2 * threads) {
+                    int index = next++;
+                    inFlight.add(pool.submit(() -> runMaze(index)));
+                }
+                for (String record : inFlight.poll().get()) {
+                    if (json) { w.write(first ? "  " : ",\n  "); first = false; }
+                    w.write(record);
+                    if (!json) w.write('\n');
+                }
+                w.flush();
+            }
+            if (json) w.write(first ? "]\n" : "\n]\n");
+            w.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<String> runMaze(int index) {
+        long mazeSeed = seed + index;
+        int er = rows - 2 - (rows % 2 == 0 ? 1 : 0), ec = cols - 2 - (cols % 2 == 0 ? 1 : 0);
+        MazeGrid grid = eller
+                ? new EllerGenerator(new Random(mazeSeed)).mix(mix).generate(rows, cols, 1, 1, er, ec)
+                : new MazeGenerator(new Random(mazeSeed)).mix(mix).generate(rows, cols, 1, 1, er, ec);
+        MazeSolver solver = new MazeSolver(grid);
+        List<String> records = new ArrayList<>(algorithms.size());
+        for (Algorithm algo : algorithms) {
+            int goal = grid.index(er, ec);
+            long t0 = System.nanoTime();
+            solver.prepare(algo, goal);
+            long prep = System.nanoTime() - t0;
+            solver.setRandom(new Random(mazeSeed));
+            solver.solve(algo, grid.index(1, 1), goal);
+            records.add(format(index, mazeSeed, algo, prep, solver.lastRun()));
+        }
+        return records;
+    }
+
+    private String format(int index, long mazeSeed, Algorithm algo, long prepNanos, SolveMetrics m) {
+        Object[] values = {index, mazeSeed, rows, cols, eller ? "eller" : "prim", algo.name(), m.found, m.steps, m.cost,
+                m.expanded, m.pushed, m.stalePops, m.peakFrontier, millis(prepNanos), millis(m.wallNanos), millis(m.cpuNanos)};
+        StringBuilder sb = new StringBuilder(json ? "{" : "");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(json ? ", " : ",");
+            Object v = values[i];
+            if (json) {
+                sb.append('"').append(COLUMNS[i]).append("\": ");
+                sb.append(v instanceof String ? "\"" + v + "\"" : String.valueOf(v));
+            } else {
+                sb.append(v);
+            }
+        }
+        return json ? sb.append('}').toString() : sb.toString();
+    }
+
+    /** Milliseconds rounded to the microsecond, or -1 when not measured. */
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : Math.round(nanos / 1e3) / 1e3;
+    }
+
+    private static List<Algorithm> parseAlgorithms(String value) {
+        if (value.equalsIgnoreCase("all")) return List.of(Algorithm.values());
+        List<Algorithm> list = new ArrayList<>();
+        for (String name : value.split(",")) {
+            String key = name.trim().toUpperCase(Locale.ROOT);
+            try {
+                list.add(Algorithm.valueOf(key));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown algorithm " + name.trim());
+            }
+        }
+        return list;
+    }
+
+    private static int positive(String flag, String value) {
+        int v;
+        try { v = Integer.parseInt(value); } catch (NumberFormatException e) { v = -1; }
+        if (v <= 0) throw new IllegalArgumentException(flag + " needs a positive integer, got " + value);
+        return v;
+    }
+
+    private static String choice(String flag, String value, String... allowed) {
+        for (String a : allowed) if (a.equalsIgnoreCase(value)) return a;
+        throw new IllegalArgumentException(flag + " must be one of " + String.join(", ", allowed) + ", got " + value);
+    }
+
+    private static OutputStream nonClosing(OutputStream os) {
+        return new OutputStream() {
+            @Override public void write(int b) throws IOException { os.write(b); }
+            @Override public void write(byte[] b, int off, int len) throws IOException { os.write(b, off, len); }
+            @Override public void flush() throws IOException { os.flush(); }
+        };
+    }
+}
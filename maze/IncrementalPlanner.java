@@ -0,0 +1,149 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Lifelong Planning A* (LPA*) between a fixed start and goal. g/rhs values survive between queries, so after
+ * {@link #setCell} only the vertices whose cost-to-come actually changed are re-expanded. Entering a cell costs
+ * its terrain, so editing cell {@code v} only changes the edges into {@code v} and only {@code v}'s rhs needs
+ * refreshing; the change then propagates through the usual LPA* queue.
+ *
+ * <p>Terrain edits must go through {@link #setCell}. If the grid is modified behind the planner's back the next
+ * {@link #plan()} notices the version change and starts over from scratch.
+ */
+public final class IncrementalPlanner {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final MazeGrid grid;
+    private final int start, goal;
+    private final int rows, cols, goalRow, goalCol;
+    private final int[] g, rhs;
+    private final IndexedMinHeap open;
+    private long knownModCount;
+    private int expanded;
+    /** Collects pushes from {@link #setCell} and the repair that follows, then restarts after each {@link #plan()}. */
+    private SearchStats stats = new SearchStats();
+    private SolveMetrics lastRun;
+
+    public IncrementalPlanner(MazeGrid grid, int start, int goal) {
+        this.grid = grid;
+        this.start = start;
+        this.goal = goal;
+        this.rows = grid.rows();
+        this.cols = grid.cols();
+        this.goalRow = grid.row(goal);
+        this.goalCol = grid.col(goal);
+        int n = grid.size();
+        g = new int[n];
+        rhs = new int[n];
+        open = new IndexedMinHeap(n);
+        reset();
+    }
+
+    public MazeGrid grid() { return grid; }
+
+    /** Changes one cell's terrain and marks the affected vertex for repair on the next {@link #plan()}. */
+    public void setCell(int cell, int type) {
+        if (grid.modCount() != knownModCount) reset();
+        if (grid.get(cell) == type) return;
+        grid.set(cell, type);
+        knownModCount = grid.modCount();
+        updateVertex(cell);
+    }
+
+    /**
+     * Repairs the previous solution; {@code expanded} counts only the vertices re-expanded by this call. Measured
+     * like {@link MazeSolver#solve} and reported as {@link Algorithm#LPA_STAR}.
+     */
+    public SolveResult plan() {
+        SolveProbe probe = SolveProbe.start();
+        SolveResult result = replan();
+        lastRun = probe.finish(Algorithm.LPA_STAR, grid, result, stats);
+        stats = new SearchStats();
+        return result;
+    }
+
+    /** Figures for the most recent {@link #plan()}, or null before the first. */
+    public SolveMetrics lastRun() { return lastRun; }
+
+    /** An unmeasured plan counting into {@code stats}, for a caller that measures the query itself. */
+    SolveResult replan(SearchStats stats) {
+        this.stats = stats;
+        return replan();
+    }
+
+    private SolveResult replan() {
+        if (grid.modCount() != knownModCount) reset();
+        expanded = 0;
+        while (!open.isEmpty() && (open.peekKey() < key(goal) || rhs[goal] != g[goal])) {
+            int u = open.pop(); expanded++;
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                updateNeighbours(u);
+            } else {
+                g[u] = INF;
+                updateVertex(u);
+                updateNeighbours(u);
+            }
+        }
+        if (g[goal] == INF) return SolveResult.notFound(expanded);
+
+        int len = 1;
+        for (int u = goal; u != start; u = bestPredecessor(u)) len++;
+        int[] path = new int[len];
+        int u = goal;
+        for (int i = len - 1; i > 0; i--) { path[i] = u; u = bestPredecessor(u); }
+        path[0] = start;
+        return new SolveResult(true, path, g[goal], expanded);
+    }
+
+    private void reset() {
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        open.clear();
+        rhs[start] = 0;
+        open.put(start, key(start)); stats.push(1);
+        knownModCount = grid.modCount();
+    }
+
+    /** LPA* key [min(g, rhs) + h; min(g, rhs)] packed into one long; both halves are non-negative ints. */
+    private long key(int u) {
+        int m = Math.min(g[u], rhs[u]);
+        if (m == INF) return Long.MAX_VALUE;
+        int r = u / cols;
+        int h = Math.abs(r - goalRow) + Math.abs(u - r * cols - goalCol);
+        return ((long) (m + h) << 32) | m;
+    }
+
+    private void updateVertex(int u) {
+        if (u != start) rhs[u] = computeRhs(u);
+        if (g[u] != rhs[u]) { open.put(u, key(u)); stats.push(open.size()); } else open.remove(u);
+    }
+
+    private void updateNeighbours(int u) {
+        int r = u / cols, c = u - r * cols;
+        if (r > 0) updateVertex(u - cols);
+        if (r < rows - 1) updateVertex(u + cols);
+        if (c > 0) updateVertex(u - 1);
+        if (c < cols - 1) updateVertex(u + 1);
+    }
+
+    private int computeRhs(int u) {
+        if (!grid.isOpen(u)) return INF;
+        int best = INF, r = u / cols, c = u - r * cols;
+        if (r > 0) best = Math.min(best, g[u - cols]);
+        if (r < rows - 1) best = Math.min(best, g[u + cols]);
+        if (c > 0) best = Math.min(best, g[u - 1]);
+        if (c < cols - 1) best = Math.min(best, g[u + 1]);
+        return best == INF ? INF : best + grid.cost(u);
+    }
+
+    private int bestPredecessor(int u) {
+        int best = -1, r = u / cols, c = u - r * cols;
+        if (r > 0 && (best < 0 || g[u - cols] < g[best])) best = u - cols;
+        if (r < rows - 1 && (best < 0 || g[u + cols] < g[best])) best = u + cols;
+        if (c > 0 && (best < 0 || g[u - 1] < g[best])) best = u - 1;
+        if (c < cols - 1 && (best < 0 || g[u + 1] < g[best])) best = u + 1;
+        return best;
+    }
+}
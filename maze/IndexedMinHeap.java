@@ -0,0 +1,95 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over cells {@code 0..n-1} with long keys and a position index, so a queued cell can have
+ * its key changed or be removed in O(log n). Each cell is queued at most once.
+ */
+public final class IndexedMinHeap {
+    private final int[] heap;
+    private final long[] keys;
+    private final int[] pos;
+    private int size;
+
+    public IndexedMinHeap(int n) {
+        heap = new int[n];
+        keys = new long[n];
+        pos = new int[n];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public boolean contains(int cell) { return pos[cell] >= 0; }
+    public long peekKey() { return keys[heap[0]]; }
+    public int peek() { return heap[0]; }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    /** Inserts {@code cell} or moves it to {@code key} if already queued. */
+    public void put(int cell, long key) {
+        int i = pos[cell];
+        if (i < 0) {
+            i = size++;
+            heap[i] = cell; pos[cell] = i; keys[cell] = key;
+            siftUp(i);
+        } else {
+            long old = keys[cell];
+            keys[cell] = key;
+            if (key < old) siftUp(i); else siftDown(i);
+        }
+    }
+
+    public int pop() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    public void remove(int cell) {
+        int i = pos[cell];
+        if (i >= 0) removeAt(i);
+    }
+
+    private void removeAt(int i) {
+        int cell = heap[i];
+        pos[cell] = -1;
+        int last = heap[--size];
+        if (i == size) return;
+        heap[i] = last; pos[last] = i;
+        siftDown(i);
+        siftUp(pos[last]);
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        long key = keys[cell];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int pc = heap[parent];
+            if (keys[pc] <= key) break;
+            heap[i] = pc; pos[pc] = i;
+            i = parent;
+        }
+        heap[i] = cell; pos[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        long key = keys[cell];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+            int cc = heap[child];
+            if (key <= keys[cc]) break;
+            heap[i] = cc; pos[cc] = i;
+            i = child;
+        }
+        heap[i] = cell; pos[cell] = i;
+    }
+}
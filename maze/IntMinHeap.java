@@ -0,0 +1,56 @@
+package maze;
+
+import java.util.Arrays;
+
+/** Binary min-heap of (key, cell) int pairs. Duplicate cells are allowed; callers skip stale entries on pop. */
+public final class IntMinHeap implements IntPriorityQueue {
+    private int[] keys;
+    private int[] cells;
+    private int size;
+    private int lastKey;
+
+    public IntMinHeap(int capacity) {
+        capacity = Math.max(capacity, 16);
+        keys = new int[capacity];
+        cells = new int[capacity];
+    }
+
+    @Override public boolean isEmpty() { return size == 0; }
+    @Override public int size() { return size; }
+    @Override public void clear() { size = 0; }
+    @Override public int lastKey() { return lastKey; }
+    @Override public int peekKey() { return keys[0]; }
+
+    @Override
+    public void push(int cell, int key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            cells = Arrays.copyOf(cells, size << 1);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            keys[i] = keys[parent]; cells[i] = cells[parent];
+            i = parent;
+        }
+        keys[i] = key; cells[i] = cell;
+    }
+
+    @Override
+    public int pop() {
+        int cell = cells[0];
+        lastKey = keys[0];
+        int key = keys[--size], moved = cells[size];
+        int i = 0, half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (key <= keys[child]) break;
+            keys[i] = keys[child]; cells[i] = cells[child];
+            i = child;
+        }
+        keys[i] = key; cells[i] = moved;
+        return cell;
+    }
+}
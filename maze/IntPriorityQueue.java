@@ -0,0 +1,14 @@
+package maze;
+
+/** Min-priority queue of int cells keyed by int priority, used by the weighted solvers. */
+public interface IntPriorityQueue {
+    void push(int cell, int key);
+    int pop();
+    /** Smallest key currently queued, without removing it. Queue must be non-empty. */
+    int peekKey();
+    /** Key of the entry returned by the last {@link #pop()}. */
+    int lastKey();
+    boolean isEmpty();
+    int size();
+    void clear();
+}
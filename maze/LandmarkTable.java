@@ -0,0 +1,128 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Exact cost tables from K landmarks for ALT (A*, landmarks, triangle inequality). Landmarks are the open cells
+ * nearest to K points spread evenly around the border, and the K Dijkstra sweeps run in parallel.
+ *
+ * <p>Only the forward table {@code d(L, v)} is stored. Entering a cell costs its terrain, so reversing a path
+ * changes its cost by exactly the endpoint costs: {@code d(v, L) = d(L, v) - cost(v) + cost(L)}. That gives
+ * both ALT bounds from one table, halving the memory against a directed ALT. The tables describe the terrain
+ * at construction time; check {@link #isCurrent()} before using them after an edit.
+ */
+public final class LandmarkTable {
+    public static final int DEFAULT_LANDMARKS = 8;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final MazeGrid grid;
+    private final long modCount;
+    private final int[] landmarks;
+    private final int[][] dist;
+
+    public LandmarkTable(MazeGrid grid, int count) { this(grid, count, () -> false); }
+
+    /** Builds the tables, polling {@code cancelled} as it goes and giving up with a {@link CancellationException}. */
+    public LandmarkTable(MazeGrid grid, int count, BooleanSupplier cancelled) {
+        if (count < 1) throw new IllegalArgumentException("Need at least one landmark: " + count);
+        this.grid = grid;
+        this.modCount = grid.modCount();
+        this.landmarks = pickLandmarks(grid, count);
+        this.dist = new int[landmarks.length][];
+        IntStream.range(0, landmarks.length).parallel().forEach(i -> dist[i] = distancesFrom(landmarks[i], cancelled));
+    }
+
+    public MazeGrid grid() { return grid; }
+    /** True while the grid still has the terrain these tables were computed from. */
+    public boolean isCurrent() { return grid.modCount() == modCount; }
+    public int count() { return landmarks.length; }
+    public int landmark(int i) { return landmarks[i]; }
+
+    /** Bytes held by the distance tables: {@code 4 * K * rows * cols}, plus the landmark list. */
+    public long memoryBytes() { return 4L * landmarks.length * grid.size() + 4L * landmarks.length; }
+
+    /**
+     * Admissible and consistent lower bound on the cost from {@code cell} to {@code goal}: the best triangle
+     * inequality bound over all landmarks, never below the Manhattan distance.
+     */
+    public int heuristic(int cell, int goal) {
+        int cols = grid.cols(), r = cell / cols, gr = goal / cols;
+        int best = Math.abs(r - gr) + Math.abs(cell - r * cols - (goal - gr * cols));
+        int delta = grid.cost(goal) - grid.cost(cell);
+        for (int[] d : dist) {
+            int dv = d[cell], dt = d[goal];
+            if (dv == UNREACHABLE || dt == UNREACHABLE) continue;
+            // d(L,t) <= d(L,v) + d(v,t)   and   d(v,L) <= d(v,t) + d(t,L)
+            int h = Math.max(dt - dv, dv - dt + delta);
+            if (h > best) best = h;
+        }
+        return best;
+    }
+
+    private int[] distancesFrom(int source, BooleanSupplier cancelled) {
+        int n = grid.size(), cols = grid.cols(), rows = grid.rows();
+        int[] d = new int[n];
+        Arrays.fill(d, UNREACHABLE);
+        BucketQueue pq = new BucketQueue(MazeGrid.MAX_OPEN_COST, Math.max(16, (rows + cols) * 4));
+        d[source] = 0; pq.push(source, 0);
+        for (int pops = 1; !pq.isEmpty(); pops++) {
+            if ((pops & 0xFFF) == 0 && cancelled.getAsBoolean()) throw new CancellationException("Landmark build cancelled");
+            int cur = pq.pop(); if (pq.lastKey() > d[cur]) continue;
+            int r = cur / cols, c = cur - r * cols;
+            if (r > 0) relax(cur - cols, d[cur], d, pq);
+            if (r < rows - 1) relax(cur + cols, d[cur], d, pq);
+            if (c > 0) relax(cur - 1, d[cur], d, pq);
+            if (c < cols - 1) relax(cur + 1, d[cur], d, pq);
+        }
+        return d;
+    }
+
+    private void relax(int nb, int base, int[] d, BucketQueue pq) {
+        if (!grid.isOpen(nb)) return;
+        int nd = base + grid.cost(nb);
+        if (nd < d[nb]) { d[nb] = nd; pq.push(nb, nd); }
+    }
+
+    /**
+     * Spreads {@code count} points evenly around the border and walks each one toward the centre until it
+     * reaches an open cell. Duplicates and points with no open cell on their way in are dropped.
+     */
+    private static int[] pickLandmarks(MazeGrid grid, int count) {
+        int rows = grid.rows(), cols = grid.cols();
+        int perimeter = Math.max(1, 2 * (rows + cols) - 4);
+        int[] picked = new int[count];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            int p = (int) ((long) i * perimeter / count), r, c;
+            if (p < cols) { r = 0; c = p; }
+            else if ((p -= cols) < rows - 1) { r = p + 1; c = cols - 1; }
+            else if ((p -= rows - 1) < cols - 1) { r = rows - 1; c = cols - 2 - p; }
+            else { r = Math.max(1, rows - 2 - (p - (cols - 1))); c = 0; }
+            int cell = walkInward(grid, r, c);
+            if (cell < 0) continue;
+            boolean duplicate = false;
+            for (int j = 0; j < k; j++) duplicate |= picked[j] == cell;
+            if (!duplicate) picked[k++] = cell;
+        }
+        if (k == 0) throw new IllegalArgumentException("Grid has no open cell for a landmark");
+        return Arrays.copyOf(picked, k);
+    }
+
+    private static int walkInward(MazeGrid grid, int r, int c) {
+        int cr = grid.rows() / 2, cc = grid.cols() / 2;
+        int steps = Math.max(Math.abs(cr - r), Math.abs(cc - c));
+        for (int s = 0; s <= steps; s++) {
+            int rr = r + (int) Math.round((double) (cr - r) * s / Math.max(1, steps));
+            int c2 = c + (int) Math.round((double) (cc - c) * s / Math.max(1, steps));
+            // Look one cell around the line too, so a wall ring or a wall-aligned row does not hide the open cells.
+            for (int dr = -1; dr <= 1; dr++) for (int dc = -1; dc <= 1; dc++) {
+                int nr = rr + dr, nc = c2 + dc;
+                if (grid.inBounds(nr, nc) && grid.isOpen(grid.index(nr, nc))) return grid.index(nr, nc);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,159 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Binary maze file: a 64-byte little-endian header followed by the terrain in {@link MazeGrid}'s own packing
+ * (2 bits per cell, 32 cells per 64-bit word). Loading maps the file read-only and wraps the body as the
+ * grid's storage, so nothing is read or copied up front and solvers page terrain in on demand.
+ *
+ * <pre>
+ *  0  int   magic 'MAZE'         24 int  startR
+ *  4  short version              28 int  startC
+ *  6  byte  encoding (1=packed)  32 int  exitR
+ *  7  byte  bits per cell (2)    36 int  exitC
+ *  8  int   rows                 40 long body bytes
+ * 12  int   cols                 48 short[4] cost of wall, grass, mud, water
+ * 16  long  seed                 56 reserved
+ * </pre>
+ */
+public final class MazeFile {
+    public static final int MAGIC = 0x4D415A45;
+    public static final short VERSION = 1;
+    public static final byte ENCODING_PACKED = 1;
+    public static final int HEADER_BYTES = 64;
+
+    public final int rows, cols;
+    public final long seed;
+    public final int startR, startC, exitR, exitC;
+    /** Null for a file opened by {@link #readHeader}. */
+    public final MazeGrid grid;
+
+    private MazeFile(int rows, int cols, long seed, int startR, int startC, int exitR, int exitC, MazeGrid grid) {
+        this.rows = rows; this.cols = cols; this.seed = seed;
+        this.startR = startR; this.startC = startC; this.exitR = exitR; this.exitC = exitC;
+        this.grid = grid;
+    }
+
+    /**
+     * Writes {@code grid} through a mapping of a temporary file in the same directory, then moves it over
+     * {@code path}. The old file is never truncated, so a grid still mapped from it, including {@code grid}
+     * itself, keeps reading the old contents. A new file gets the usual permissions for a new file; a replaced
+     * one keeps its own.
+     */
+    public static void save(Path path, MazeGrid grid, long seed, int startR, int startC, int exitR, int exitC) throws IOException {
+        long body = grid.memoryBytes();
+        Path dir = path.toAbsolutePath().getParent();
+        Path tmp = createSibling(dir, path.getFileName().toString());
+        try {
+            PosixFileAttributeView target = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+            if (target != null && Files.exists(path)) {
+                Files.getFileAttributeView(tmp, PosixFileAttributeView.class).setPermissions(target.readAttributes().permissions());
+            }
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + body);
+                buf.order(ByteOrder.LITTLE_ENDIAN);
+                putHeader(buf, grid.rows(), grid.cols(), seed, startR, startC, exitR, exitC, body);
+                grid.writeWords(buf.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+                buf.force();
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** A fresh file next to the target. Unlike {@link Files#createTempFile} it is not restricted to the owner. */
+    private static Path createSibling(Path dir, String name) throws IOException {
+        while (true) {
+            try {
+                return Files.createFile(dir.resolve(name + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp"));
+            } catch (FileAlreadyExistsException e) {
+                // another save picked the same name; draw again
+            }
+        }
+    }
+
+    /**
+     * Opens a file for streaming a maze into it, e.g. from {@link EllerGenerator}. The header is written up
+     * front; rows must then add up to exactly {@code rows * cols} cells before the writer is closed.
+     */
+    public static PackedGridWriter create(Path path, int rows, int cols, long seed, int startR, int startC, int exitR, int exitC) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            putHeader(header, rows, cols, seed, startR, startC, exitR, exitC, (((long) rows * cols + 31) >>> 5) * Long.BYTES);
+            while (header.hasRemaining()) ch.write(header);
+            return new PackedGridWriter(Channels.newOutputStream(ch));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the file read-only and returns a grid backed by it, so read-only files load too. The first edit
+     * copies the terrain to the heap; the file itself is never written, so save again to keep edits.
+     */
+    public static MazeFile load(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MazeFile header = parseHeader(ch);
+            long body = (long) MazeGrid.wordCount(header.rows, header.cols) * Long.BYTES;
+            if (ch.size() < HEADER_BYTES + body) throw new IOException("Truncated maze file: " + path);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, body);
+            MazeGrid grid = new MazeGrid(header.rows, header.cols, buf.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+            return new MazeFile(header.rows, header.cols, header.seed, header.startR, header.startC, header.exitR, header.exitC, grid);
+        }
+    }
+
+    /** Reads only the header, which also works for files too large to map as a single grid. */
+    public static MazeFile readHeader(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return parseHeader(ch);
+        }
+    }
+
+    private static void putHeader(ByteBuffer buf, int rows, int cols, long seed, int startR, int startC, int exitR, int exitC, long body) {
+        buf.putInt(0, MAGIC).putShort(4, VERSION).put(6, ENCODING_PACKED).put(7, (byte) 2)
+                .putInt(8, rows).putInt(12, cols).putLong(16, seed)
+                .putInt(24, startR).putInt(28, startC).putInt(32, exitR).putInt(36, exitC)
+                .putLong(40, body);
+        for (int t = 0; t < 4; t++) buf.putShort(48 + 2 * t, (short) MazeGrid.costOf(t));
+    }
+
+    private static MazeFile parseHeader(FileChannel ch) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) if (ch.read(buf, buf.position()) < 0) throw new IOException("Not a maze file");
+        if (buf.getInt(0) != MAGIC) throw new IOException("Not a maze file");
+        if (buf.getShort(4) != VERSION) throw new IOException("Unsupported maze file version " + buf.getShort(4));
+        if (buf.get(6) != ENCODING_PACKED || buf.get(7) != 2) throw new IOException("Unsupported terrain encoding " + buf.get(6));
+        for (int t = 0; t < 4; t++) {
+            if (buf.getShort(48 + 2 * t) != MazeGrid.costOf(t)) throw new IOException("Terrain costs differ from this build's");
+        }
+        int rows = buf.getInt(8), cols = buf.getInt(12);
+        if (rows < 3 || cols < 3 || (long) rows * cols > Integer.MAX_VALUE) throw new IOException("Corrupt maze size " + rows + "x" + cols);
+        if (buf.getLong(40) != (long) MazeGrid.wordCount(rows, cols) * Long.BYTES) throw new IOException("Corrupt body size " + buf.getLong(40));
+        int startR = buf.getInt(24), startC = buf.getInt(28), exitR = buf.getInt(32), exitC = buf.getInt(36);
+        if (startR < 0 || startR >= rows || startC < 0 || startC >= cols || exitR < 0 || exitR >= rows || exitC < 0 || exitC >= cols) {
+            throw new IOException("Start or exit outside the " + rows + "x" + cols + " maze");
+        }
+        return new MazeFile(rows, cols, buf.getLong(16), startR, startC, exitR, exitC, null);
+    }
+}
@@ -0,0 +1,84 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static maze.MazeGrid.TYPE_GRASS;
+import static maze.MazeGrid.TYPE_WALL;
+
+/** Randomized Prim's maze with extra loops carved through thin walls, then terrain scattered over open cells. */
+public final class MazeGenerator {
+    private static final int[] DR = {-1, 1, 0, 0}, DC = {0, 0, -1, 1};
+
+    private final Random rand;
+    private TerrainMix mix = TerrainMix.BALANCED;
+    private double loopChance = 0.15;
+
+    /** Frontier walls of the running generation as parallel arrays: wall cell and the direction to cross it. */
+    private int[] wallCells;
+    private byte[] wallDirs;
+    private int frontier;
+
+    public MazeGenerator(Random rand) { this.rand = rand; }
+
+    public MazeGenerator mix(TerrainMix mix) { this.mix = mix; return this; }
+    public MazeGenerator loopChance(double loopChance) { this.loopChance = loopChance; return this; }
+
+    /** Generates a maze whose start and exit cells are always open grass. */
+    public MazeGrid generate(int rows, int cols, int startR, int startC, int exitR, int exitC) {
+        MazeGrid maze = new MazeGrid(rows, cols);
+        maze.fill(TYPE_WALL);
+
+        maze.set(1, 1, TYPE_GRASS);
+        frontier = 0;
+        addWalls(maze, 1, 1);
+
+        while (frontier > 0) {
+            // Swap-remove: order does not matter, so a random pick costs O(1) instead of an ArrayList shift.
+            int idx = rand.nextInt(frontier);
+            int wall = wallCells[idx], dir = wallDirs[idx];
+            frontier--;
+            wallCells[idx] = wallCells[frontier]; wallDirs[idx] = wallDirs[frontier];
+            int wr = wall / cols, wc = wall - wr * cols;
+            int nr = wr + DR[dir], nc = wc + DC[dir];
+            if (isInterior(maze, nr, nc) && maze.get(nr, nc) == TYPE_WALL) {
+                maze.set(wall, TYPE_GRASS);
+                maze.set(nr, nc, TYPE_GRASS);
+                addWalls(maze, nr, nc);
+            }
+        }
+        wallCells = null; wallDirs = null;
+
+        for (int r = 1; r < rows - 1; r++) {
+            for (int c = 1; c < cols - 1; c++) {
+                if (maze.get(r, c) == TYPE_WALL) {
+                    boolean v = (maze.get(r-1, c) != TYPE_WALL && maze.get(r+1, c) != TYPE_WALL);
+                    boolean h = (maze.get(r, c-1) != TYPE_WALL && maze.get(r, c+1) != TYPE_WALL);
+                    if ((v || h) && rand.nextDouble() < loopChance) maze.set(r, c, TYPE_GRASS);
+                }
+            }
+        }
+
+        for (int cell = 0, n = maze.size(); cell < n; cell++) {
+            if (maze.get(cell) != TYPE_WALL) maze.set(cell, mix.pick(rand.nextDouble()));
+        }
+
+        maze.set(startR, startC, TYPE_GRASS);
+        maze.set(exitR, exitC, TYPE_GRASS);
+        return maze;
+    }
+
+    private void addWalls(MazeGrid maze, int r, int c) {
+        for (int d = 0; d < 4; d++) {
+            int nr = r + DR[d], nc = c + DC[d];
+            if (!isInterior(maze, nr, nc) || maze.get(nr, nc) != TYPE_WALL) continue;
+            if (wallCells == null) { wallCells = new int[64]; wallDirs = new byte[64]; }
+            if (frontier == wallCells.length) {
+                wallCells = Arrays.copyOf(wallCells, frontier << 1); wallDirs = Arrays.copyOf(wallDirs, frontier << 1);
+            }
+            wallCells[frontier] = maze.index(nr, nc); wallDirs[frontier] = (byte) d; frontier++;
+        }
+    }
+
+    private static boolean isInterior(MazeGrid maze, int r, int c) { return r > 0 && r < maze.rows() - 1 && c > 0 && c < maze.cols() - 1; }
+}
@@ -0,0 +1,136 @@
+package maze;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Terrain grid packed at 2 bits per cell into a {@code long[]} (32 cells per word), addressed either
+ * by (row, col) or by the flat cell index {@code r * cols + c} the solvers use. A grid loaded through
+ * {@link MazeFile} keeps the same words in a read-only mapped buffer until its first edit, which copies
+ * them to the heap.
+ */
+public final class MazeGrid {
+    public static final int TYPE_WALL = 0;
+    public static final int TYPE_GRASS = 1;
+    public static final int TYPE_MUD = 2;
+    public static final int TYPE_WATER = 3;
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private static final int[] COSTS = {9999, 1, 5, 10};
+    /** Largest cost of entering a non-wall cell. */
+    public static final int MAX_OPEN_COST = 10;
+
+    private final int rows, cols;
+    /**
+     * Heap words, or null while they still live in {@link #words}. This is the only storage field that changes:
+     * the first edit publishes a fresh array here in one volatile write, so a concurrent reader sees either the
+     * mapped words or the complete copy and never neither.
+     */
+    private volatile long[] bits;
+    /** The mapped file's words, read only while {@link #bits} is null; never written through. */
+    private final LongBuffer words;
+    private final long id = IDS.incrementAndGet();
+    /**
+     * Bumped after each edit and volatile, so a thread that reads a new version also sees the edit behind it.
+     * Edits themselves must come from one thread at a time.
+     */
+    private volatile long modCount;
+
+    public MazeGrid(int rows, int cols) {
+        if (rows < 3 || cols < 3) throw new IllegalArgumentException("Maze must be at least 3x3: " + rows + "x" + cols);
+        if ((long) rows * cols > Integer.MAX_VALUE) throw new IllegalArgumentException("Maze too large: " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.bits = new long[wordCount(rows, cols)];
+        this.words = null;
+    }
+
+    /** Wraps {@code words} (little-endian, {@link #wordCount} long) without copying. */
+    MazeGrid(int rows, int cols, LongBuffer words) {
+        if (rows < 3 || cols < 3) throw new IllegalArgumentException("Maze must be at least 3x3: " + rows + "x" + cols);
+        if ((long) rows * cols > Integer.MAX_VALUE) throw new IllegalArgumentException("Maze too large: " + rows + "x" + cols);
+        if (words.limit() < wordCount(rows, cols)) throw new IllegalArgumentException("Buffer too small for " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.bits = null;
+        this.words = words;
+    }
+
+    static int wordCount(int rows, int cols) { return (int) (((long) rows * cols + 31) >>> 5); }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public int size() { return rows * cols; }
+    public int index(int r, int c) { return r * cols + c; }
+    public int row(int cell) { return cell / cols; }
+    public int col(int cell) { return cell % cols; }
+    public boolean inBounds(int r, int c) { return r >= 0 && r < rows && c >= 0 && c < cols; }
+
+    /** Unique per grid instance; together with {@link #modCount()} it identifies one version of the terrain. */
+    public long id() { return id; }
+    public long modCount() { return modCount; }
+
+    public int get(int cell) { return (int) (word(cell >>> 5) >>> ((cell & 31) << 1)) & 3; }
+    public int get(int r, int c) { return get(r * cols + c); }
+
+    public void set(int cell, int type) {
+        int shift = (cell & 31) << 1;
+        int w = cell >>> 5;
+        long[] b = bits;
+        if (b == null) b = detach();
+        b[w] = (b[w] & ~(3L << shift)) | ((long) (type & 3) << shift);
+        modCount++;
+    }
+    public void set(int r, int c, int type) { set(r * cols + c, type); }
+
+    /** Sets every cell, including the padding bits of the last word, to {@code type}. */
+    public void fill(int type) {
+        long pattern = type & 3;
+        for (int s = 2; s < 64; s <<= 1) pattern |= pattern << s;
+        long[] b = bits;
+        if (b != null) { Arrays.fill(b, pattern); }
+        else { b = new long[wordCount(rows, cols)]; Arrays.fill(b, pattern); bits = b; }
+        modCount++;
+    }
+
+    public int cost(int cell) { return COSTS[get(cell)]; }
+    public boolean isOpen(int cell) { return get(cell) != TYPE_WALL; }
+
+    public static int costOf(int type) { return COSTS[type & 3]; }
+
+    /** Independent copy, e.g. an immutable snapshot for concurrent solvers while the original is edited. */
+    public MazeGrid copy() {
+        MazeGrid copy = new MazeGrid(rows, cols);
+        long[] b = bits;
+        if (b != null) System.arraycopy(b, 0, copy.bits, 0, b.length);
+        else words.get(0, copy.bits);
+        return copy;
+    }
+
+    /** Bytes of packed terrain, whether on the heap or in a mapped file. */
+    public long memoryBytes() { return (long) wordCount(rows, cols) * Long.BYTES; }
+    /** True until the first edit of a grid loaded from a file. */
+    public boolean isMapped() { return bits == null; }
+
+    /** Copies the packed words into {@code out}, e.g. a mapped file region. */
+    void writeWords(LongBuffer out) {
+        long[] b = bits;
+        if (b != null) out.put(b);
+        else out.put(words.duplicate().position(0).limit(wordCount(rows, cols)));
+    }
+
+    private long word(int w) {
+        long[] b = bits;
+        return b != null ? b[w] : words.get(w);
+    }
+
+    /** Copy-on-write: moves mapped words to the heap so the file is never modified. */
+    private long[] detach() {
+        long[] heap = new long[wordCount(rows, cols)];
+        words.get(0, heap);
+        bits = heap;
+        return heap;
+    }
+}
@@ -0,0 +1,394 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Headless search engine. Cells are flat indices {@code r * cols + c}; all per-query state lives in
+ * int arrays and a visited bitset that are allocated once per solver and reused between queries.
+ * An instance is not thread-safe.
+ *
+ * <p>Every {@link #solve} call is measured: expanded, pushed, stale pops, peak frontier, wall and CPU time.
+ * The figures are kept as {@link #lastRun()}, committed as a {@code maze.Solve} JFR event and added to
+ * {@link SolverMetrics#global()}.
+ */
+public final class MazeSolver {
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int NO_PARENT = -1;
+    /** Largest edge cost for which AUTO uses Dial's buckets instead of the binary heap. */
+    private static final int BUCKET_MAX_COST = 256;
+    private static final int FORWARD = 0, BACKWARD = 1;
+
+    private final MazeGrid maze;
+    private final int rows, cols;
+
+    private final int[] parent;
+    private final int[] dist;
+    private final long[] visited;
+    private final int[] frontier;
+    private final IntMinHeap[] heaps = new IntMinHeap[2];
+    private final BucketQueue[] bucketQueues = new BucketQueue[2];
+    private int[] parentB, distB;
+    private CorridorGraph corridors;
+    private FlowField flowField;
+    private ClusterHierarchy hierarchy;
+    private LandmarkTable landmarks;
+    private ParallelBfs parallelBfs;
+    private QueueMode queueMode = QueueMode.AUTO;
+    private final int[] nbuf = new int[4];
+
+    private Random random = new Random();
+    private SearchListener listener;
+    private int expanded;
+    private final SearchStats stats = new SearchStats();
+    private SolveMetrics lastRun;
+
+    public MazeSolver(MazeGrid maze) {
+        this.maze = maze;
+        this.rows = maze.rows();
+        this.cols = maze.cols();
+        int n = maze.size();
+        parent = new int[n];
+        dist = new int[n];
+        visited = new long[(n + 63) >>> 6];
+        frontier = new int[n];
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+    public int index(int r, int c) { return r * cols + c; }
+    public int row(int cell) { return cell / cols; }
+    public int col(int cell) { return cell % cols; }
+
+    public void setListener(SearchListener listener) { this.listener = listener; }
+    public void setRandom(Random random) { this.random = random; }
+    public void setQueueMode(QueueMode queueMode) { this.queueMode = queueMode; }
+    /** Landmark tables for {@link Algorithm#ALT}; ignored unless built for this grid and still current. */
+    public void setLandmarks(LandmarkTable landmarks) { this.landmarks = landmarks; }
+
+    public MazeGrid grid() { return maze; }
+    public int getCellCost(int cell) { return maze.cost(cell); }
+    public boolean isValidStep(int cell) { return maze.isOpen(cell); }
+
+    public SolveResult solve(Algorithm algo, int start, int goal) {
+        stats.reset();
+        SolveProbe probe = SolveProbe.start();
+        SolveResult result = dispatch(algo, start, goal);
+        lastRun = probe.finish(algo, maze, result, stats);
+        return result;
+    }
+
+    /** Measurements of the most recent {@link #solve} call, or null before the first. */
+    public SolveMetrics lastRun() { return lastRun; }
+
+    /**
+     * Builds whatever {@code algo} caches across queries (landmark tables, corridor graph, HPA* clusters, the
+     * flow field to {@code goal}) so the next {@link #solve} measures only the query. Other algorithms have
+     * nothing to build.
+     */
+    public void prepare(Algorithm algo, int goal) {
+        switch (algo) {
+            case ALT:
+                if (landmarks == null || landmarks.grid() != maze || !landmarks.isCurrent()) {
+                    landmarks = new LandmarkTable(maze, LandmarkTable.DEFAULT_LANDMARKS);
+                }
+                break;
+            case CORRIDOR_DIJKSTRA: case CORRIDOR_ASTAR:
+                if (corridors == null || !corridors.isCurrent()) corridors = new CorridorGraph(maze);
+                break;
+            case HPA_STAR:
+                if (hierarchy == null) hierarchy = new ClusterHierarchy(maze);
+                hierarchy.abstractNodeCount();
+                break;
+            case FLOW_FIELD: flowFieldTo(goal).distanceTo(goal); break;
+            default: break;
+        }
+    }
+
+    private SolveResult dispatch(Algorithm algo, int start, int goal) {
+        switch (algo) {
+            case BFS: return solveBFS(start, goal);
+            case DFS: return solveDFS(start, goal);
+            case DIJKSTRA: return solveDijkstra(start, goal);
+            case ASTAR: return solveAStar(start, goal);
+            case BI_DIJKSTRA: return solveBidirectional(start, goal, false);
+            case BI_ASTAR: return solveBidirectional(start, goal, true);
+            case CORRIDOR_DIJKSTRA: return solveCorridors(start, goal, false);
+            case CORRIDOR_ASTAR: return solveCorridors(start, goal, true);
+            case HPA_STAR: return solveHierarchical(start, goal);
+            case ALT: return solveALT(start, goal);
+            case PARALLEL_BFS: return solveParallelBFS(start, goal);
+            case LPA_STAR: return new IncrementalPlanner(maze, start, goal).replan(stats);
+            case FLOW_FIELD: return flowFieldTo(goal).route(start, stats);
+            default: throw new IllegalArgumentException("Unsupported algorithm: " + algo);
+        }
+    }
+
+    /** Runs {@code algo} with a {@link TraceRecorder} attached in place of the current listener. */
+    public SearchTrace solveTraced(Algorithm algo, int start, int goal) {
+        SearchListener previous = listener;
+        TraceRecorder recorder = new TraceRecorder();
+        listener = recorder;
+        try {
+            SolveResult result = solve(algo, start, goal);
+            return new SearchTrace(algo, recorder.toArray(), result);
+        } finally {
+            listener = previous;
+        }
+    }
+
+    public SolveResult solveBFS(int start, int goal) {
+        begin();
+        int head = 0, tail = 0;
+        frontier[tail++] = start; markVisited(start); stats.push(1);
+        while (head < tail) {
+            int cur = frontier[head++]; expand(cur);
+            if (cur == goal) return buildResult(start, goal);
+            int n = neighbours(cur);
+            for (int i = 0; i < n; i++) { int nb = nbuf[i];
+                if (!isVisited(nb)) { markVisited(nb); parent[nb] = cur; frontier[tail++] = nb; stats.push(tail - head); }
+            }
+        }
+        return SolveResult.notFound(expanded);
+    }
+
+    /** Same step count as {@link #solveBFS}, with large frontier levels swept across the common fork/join pool. */
+    public SolveResult solveParallelBFS(int start, int goal) {
+        if (parallelBfs == null) parallelBfs = new ParallelBfs(maze);
+        parallelBfs.setListener(listener);
+        parallelBfs.setStats(stats);
+        return parallelBfs.solve(start, goal);
+    }
+
+    public SolveResult solveDFS(int start, int goal) {
+        begin();
+        int top = 0;
+        frontier[top++] = start; markVisited(start); stats.push(1);
+        while (top > 0) {
+            int cur = frontier[--top]; expand(cur);
+            if (cur == goal) return buildResult(start, goal);
+            int n = 0, total = neighbours(cur);
+            for (int i = 0; i < total; i++) if (!isVisited(nbuf[i])) nbuf[n++] = nbuf[i];
+            for (int i = n - 1; i > 0; i--) { int j = random.nextInt(i + 1); int t = nbuf[i]; nbuf[i] = nbuf[j]; nbuf[j] = t; }
+            for (int i = 0; i < n; i++) { int nb = nbuf[i]; markVisited(nb); parent[nb] = cur; frontier[top++] = nb; stats.push(top); }
+        }
+        return SolveResult.notFound(expanded);
+    }
+
+    public SolveResult solveDijkstra(int start, int goal) {
+        begin();
+        IntPriorityQueue pq = frontierQueue(FORWARD, MazeGrid.MAX_OPEN_COST);
+        Arrays.fill(dist, INF);
+        dist[start] = 0; pq.push(start, 0); stats.push(1);
+        while (!pq.isEmpty()) {
+            int cur = pq.pop(); if (pq.lastKey() > dist[cur]) { stats.stale(); continue; }
+            expand(cur);
+            if (cur == goal) return buildResult(start, goal);
+            int n = neighbours(cur);
+            for (int i = 0; i < n; i++) { int nb = nbuf[i]; int nc = dist[cur] + getCellCost(nb);
+                if (nc < dist[nb]) { dist[nb] = nc; parent[nb] = cur; pq.push(nb, nc); stats.push(pq.size()); }
+            }
+        }
+        return SolveResult.notFound(expanded);
+    }
+
+    public SolveResult solveAStar(int start, int goal) {
+        begin();
+        IntPriorityQueue pq = frontierQueue(FORWARD, MazeGrid.MAX_OPEN_COST + 1);
+        Arrays.fill(dist, INF);
+        int gr = row(goal), gc = col(goal);
+        dist[start] = 0; pq.push(start, manhattan(start, gr, gc)); stats.push(1);
+        while (!pq.isEmpty()) {
+            int cur = pq.pop(); if (pq.lastKey() > dist[cur] + manhattan(cur, gr, gc)) { stats.stale(); continue; }
+            expand(cur);
+            if (cur == goal) return buildResult(start, goal);
+            int n = neighbours(cur);
+            for (int i = 0; i < n; i++) { int nb = nbuf[i]; int tg = dist[cur] + getCellCost(nb);
+                if (tg < dist[nb]) { dist[nb] = tg; parent[nb] = cur; pq.push(nb, tg + manhattan(nb, gr, gc)); stats.push(pq.size()); }
+            }
+        }
+        return SolveResult.notFound(expanded);
+    }
+
+    /**
+     * A* with the ALT landmark bound instead of plain Manhattan distance. Tables handed in through
+     * {@link #setLandmarks} are used when current; otherwise {@link LandmarkTable#DEFAULT_LANDMARKS} are built
+     * here first. The bound is consistent and moves by at most one cell cost per step, so the bucket span only
+     * doubles.
+     */
+    public SolveResult solveALT(int start, int goal) {
+        if (landmarks == null || landmarks.grid() != maze || !landmarks.isCurrent()) {
+            landmarks = new LandmarkTable(maze, LandmarkTable.DEFAULT_LANDMARKS);
+        }
+        LandmarkTable lm = landmarks;
+        begin();
+        IntPriorityQueue pq = frontierQueue(FORWARD, 2 * MazeGrid.MAX_OPEN_COST + 1);
+        Arrays.fill(dist, INF);
+        dist[start] = 0; pq.push(start, lm.heuristic(start, goal)); stats.push(1);
+        while (!pq.isEmpty()) {
+            int cur = pq.pop(); if (pq.lastKey() > dist[cur] + lm.heuristic(cur, goal)) { stats.stale(); continue; }
+            expand(cur);
+            if (cur == goal) return buildResult(start, goal);
+            int n = neighbours(cur);
+            for (int i = 0; i < n; i++) { int nb = nbuf[i]; int tg = dist[cur] + getCellCost(nb);
+                if (tg < dist[nb]) { dist[nb] = tg; parent[nb] = cur; pq.push(nb, tg + lm.heuristic(nb, goal)); stats.push(pq.size()); }
+            }
+        }
+        return SolveResult.notFound(expanded);
+    }
+
+    /**
+     * Searches from both ends at once and stops once the two frontiers' smallest keys prove no shorter meeting
+     * exists. Entering a cell costs that cell's terrain, so the backward search pays {@code cost(cur)} when
+     * stepping from {@code cur} to a predecessor and {@code dist[v] + distB[v]} is exactly the cost of the best
+     * path through {@code v}. The A* variant uses the average potential {@code (h_goal - h_start) / 2}, kept
+     * doubled so keys stay integral; it is consistent for both directions, so the same stopping rule applies.
+     */
+    public SolveResult solveBidirectional(int start, int goal, boolean heuristic) {
+        begin();
+        if (distB == null) { distB = new int[dist.length]; parentB = new int[parent.length]; }
+        int scale = heuristic ? 2 : 1, span = scale * MazeGrid.MAX_OPEN_COST + (heuristic ? 2 : 0);
+        IntPriorityQueue fq = frontierQueue(FORWARD, span), bq = frontierQueue(BACKWARD, span);
+        Arrays.fill(dist, INF); Arrays.fill(distB, INF); Arrays.fill(parentB, NO_PARENT);
+        int sr = row(start), sc = col(start), gr = row(goal), gc = col(goal);
+        dist[start] = 0; fq.push(start, heuristic ? potential(start, sr, sc, gr, gc) : 0);
+        distB[goal] = 0; bq.push(goal, heuristic ? -potential(goal, sr, sc, gr, gc) : 0);
+        stats.push(1); stats.push(2);
+        int best = start == goal ? 0 : INF, meet = start == goal ? start : -1;
+
+        while (!fq.isEmpty() && !bq.isEmpty()) {
+            int fk = fq.peekKey(), bk = bq.peekKey();
+            if (best != INF && (long) fk + bk >= (long) scale * best) break;
+            if (fk <= bk) {
+                int cur = fq.pop(); int pot = heuristic ? potential(cur, sr, sc, gr, gc) : 0;
+                if (fq.lastKey() > scale * dist[cur] + pot) { stats.stale(); continue; }
+                expand(cur);
+                int n = neighbours(cur);
+                for (int i = 0; i < n; i++) { int nb = nbuf[i]; int nd = dist[cur] + getCellCost(nb);
+                    if (nd < dist[nb]) { dist[nb] = nd; parent[nb] = cur;
+                        fq.push(nb, scale * nd + (heuristic ? potential(nb, sr, sc, gr, gc) : 0)); stats.push(fq.size() + bq.size());
+                        if (distB[nb] != INF && nd + distB[nb] < best) { best = nd + distB[nb]; meet = nb; }
+                    }
+                }
+            } else {
+                int cur = bq.pop(); int pot = heuristic ? potential(cur, sr, sc, gr, gc) : 0;
+                if (bq.lastKey() > scale * distB[cur] - pot) { stats.stale(); continue; }
+                expand(cur);
+                int step = getCellCost(cur), n = neighbours(cur);
+                for (int i = 0; i < n; i++) { int nb = nbuf[i]; int nd = distB[cur] + step;
+                    if (nd < distB[nb]) { distB[nb] = nd; parentB[nb] = cur;
+                        bq.push(nb, scale * nd - (heuristic ? potential(nb, sr, sc, gr, gc) : 0)); stats.push(fq.size() + bq.size());
+                        if (dist[nb] != INF && dist[nb] + nd < best) { best = dist[nb] + nd; meet = nb; }
+                    }
+                }
+            }
+        }
+        if (meet < 0) return SolveResult.notFound(expanded);
+
+        int head = 0;
+        for (int c = meet; c != start; c = parent[c]) head++;
+        int len = head + 1;
+        for (int c = meet; c != goal; c = parentB[c]) len++;
+        int[] path = new int[len];
+        int cost = 0;
+        for (int c = meet, i = head; i >= 0; c = parent[c], i--) path[i] = c;
+        for (int c = meet, i = head; c != goal; ) { c = parentB[c]; path[++i] = c; }
+        for (int i = 1; i < len; i++) cost += getCellCost(path[i]);
+        return new SolveResult(true, path, cost, expanded);
+    }
+
+    /**
+     * Dijkstra or A* over the corridor-contracted junction graph. The graph is built on first use and rebuilt
+     * only when the terrain changes; endpoints are attached to it per query.
+     */
+    public SolveResult solveCorridors(int start, int goal, boolean heuristic) {
+        if (corridors == null || !corridors.isCurrent()) corridors = new CorridorGraph(maze);
+        return corridors.solve(start, goal, heuristic, listener, stats);
+    }
+
+    /**
+     * Near-optimal HPA* over cached cluster abstractions. Report edits through {@link #cellChanged} so only the
+     * affected clusters are rebuilt; any other terrain change rebuilds the whole abstraction on the next query.
+     */
+    public SolveResult solveHierarchical(int start, int goal) {
+        if (hierarchy == null) hierarchy = new ClusterHierarchy(maze);
+        return hierarchy.solve(start, goal, listener, stats);
+    }
+
+    /** Tells cached abstractions that {@code cell}'s terrain was just changed. */
+    public void cellChanged(int cell) {
+        if (hierarchy != null) hierarchy.cellChanged(cell);
+    }
+
+    /** Doubled forward potential {@code h_goal(v) - h_start(v)}; the backward search uses its negation. */
+    private int potential(int cell, int sr, int sc, int gr, int gc) {
+        return manhattan(cell, gr, gc) - manhattan(cell, sr, sc);
+    }
+
+    /**
+     * Keys popped from one frontier are monotone and a push lies at most {@code span} above the last pop, so
+     * a bucket queue of that span is exact; otherwise the binary heap is used.
+     */
+    private IntPriorityQueue frontierQueue(int side, int span) {
+        boolean useBuckets = queueMode == QueueMode.BUCKET
+                || (queueMode == QueueMode.AUTO && MazeGrid.MAX_OPEN_COST <= BUCKET_MAX_COST);
+        int capacity = Math.max(16, (rows + cols) * 4);
+        IntPriorityQueue q;
+        if (useBuckets) {
+            if (bucketQueues[side] == null || bucketQueues[side].span() < span) bucketQueues[side] = new BucketQueue(span, capacity);
+            q = bucketQueues[side];
+        } else {
+            if (heaps[side] == null) heaps[side] = new IntMinHeap(capacity);
+            q = heaps[side];
+        }
+        q.clear();
+        return q;
+    }
+
+    /** Kept for the most recent exit, so repeated queries to one exit only walk the field. */
+    private FlowField flowFieldTo(int goal) {
+        if (flowField == null || flowField.exit() != goal) flowField = new FlowField(maze, goal);
+        return flowField;
+    }
+
+    private int manhattan(int cell, int gr, int gc) {
+        int r = cell / cols;
+        return Math.abs(r - gr) + Math.abs(cell - r * cols - gc);
+    }
+
+    /** Fills {@link #nbuf} with the open neighbours of {@code cell} in up, down, left, right order. */
+    private int neighbours(int cell) {
+        int r = cell / cols, c = cell - r * cols, n = 0;
+        if (r > 0 && isValidStep(cell - cols)) nbuf[n++] = cell - cols;
+        if (r < rows - 1 && isValidStep(cell + cols)) nbuf[n++] = cell + cols;
+        if (c > 0 && isValidStep(cell - 1)) nbuf[n++] = cell - 1;
+        if (c < cols - 1 && isValidStep(cell + 1)) nbuf[n++] = cell + 1;
+        return n;
+    }
+
+    private void begin() {
+        expanded = 0;
+        Arrays.fill(visited, 0L);
+        Arrays.fill(parent, NO_PARENT);
+    }
+
+    private void expand(int cell) {
+        expanded++;
+        if (listener != null) listener.onExpand(cell);
+    }
+
+    private boolean isVisited(int cell) { return (visited[cell >>> 6] & (1L << cell)) != 0; }
+    private void markVisited(int cell) { visited[cell >>> 6] |= 1L << cell; }
+
+    private SolveResult buildResult(int start, int goal) {
+        int len = 1;
+        for (int c = goal; c != start; c = parent[c]) len++;
+        int[] path = new int[len];
+        int cost = 0;
+        for (int c = goal, i = len - 1; i >= 0; c = parent[c], i--) {
+            path[i] = c;
+            if (c != start) cost += getCellCost(c);
+        }
+        return new SolveResult(true, path, cost, expanded);
+    }
+}
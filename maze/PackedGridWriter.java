@@ -0,0 +1,46 @@
+package maze;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams rows to an {@link OutputStream} in the same packing {@link MazeGrid} uses in memory: 2 bits per cell,
+ * 32 cells per 64-bit word, words little-endian, cells in {@code r * cols + c} order with no per-row padding.
+ * Only one word is buffered, so a maze far larger than the heap can be written row by row.
+ */
+public final class PackedGridWriter implements RowSink, Closeable {
+    private final OutputStream out;
+    private final byte[] buf = new byte[Long.BYTES];
+    private long word;
+    private int filled;
+    private long cells;
+
+    public PackedGridWriter(OutputStream out) { this.out = new BufferedOutputStream(out, 1 << 16); }
+
+    public long cellsWritten() { return cells; }
+
+    @Override
+    public void accept(int r, byte[] row) throws IOException {
+        for (byte type : row) {
+            word |= (long) (type & 3) << (filled << 1);
+            if (++filled == 32) flushWord();
+        }
+        cells += row.length;
+    }
+
+    /** Pads the last word with walls and flushes; the underlying stream is closed too. */
+    @Override
+    public void close() throws IOException {
+        if (filled > 0) flushWord();
+        out.close();
+    }
+
+    private void flushWord() throws IOException {
+        for (int i = 0; i < Long.BYTES; i++) buf[i] = (byte) (word >>> (i << 3));
+        out.write(buf);
+        word = 0;
+        filled = 0;
+    }
+}
@@ -0,0 +1,260 @@
+package maze;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Level-synchronous breadth-first search for unweighted reachability and hop counts on large grids.
+ *
+ * <p>Small levels are expanded on the calling thread from a plain cell list, since a maze corridor keeps the
+ * frontier tiny for thousands of levels and forking per level would cost more than it saves. Once a level
+ * outgrows {@link #SPARSE_LIMIT} it becomes a bitset, and fork/join tasks sweep it by word range. Top-down
+ * leaves claim neighbours with an atomic OR on the visited word. When the frontier is a large share of the
+ * unvisited cells the level runs bottom-up instead: each leaf owns its words and checks whether an unvisited
+ * cell has a frontier neighbour, so no atomics are needed.
+ *
+ * <p>Returns a shortest path in steps, so {@code steps} always equals {@link MazeSolver#solveBFS}'s. When
+ * several shortest paths exist the chosen one may differ, because each step back from the goal takes the
+ * first neighbour one level closer in up, down, left, right order. An instance is not thread-safe.
+ */
+public final class ParallelBfs {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    /** Largest frontier still expanded sequentially from a cell list. */
+    private static final int SPARSE_LIMIT = 4096;
+    /** Bitset words per fork/join leaf. */
+    private static final int LEAF_WORDS = 512;
+    /** A dense level goes bottom-up once the frontier exceeds 1/BOTTOM_UP_RATIO of the unvisited open cells. */
+    private static final int BOTTOM_UP_RATIO = 8;
+
+    private final MazeGrid grid;
+    private final ForkJoinPool pool;
+    private final int rows, cols, n, words;
+    private final long[] open, visited;
+    private long[] frontier, next;
+    private final int[] depth;
+    private int[] list, nextList;
+    private long knownModCount = -1;
+    private int openCount, expanded;
+    private SearchListener listener;
+    private SearchStats stats = new SearchStats();
+
+    public ParallelBfs(MazeGrid grid) { this(grid, ForkJoinPool.commonPool()); }
+
+    public ParallelBfs(MazeGrid grid, ForkJoinPool pool) {
+        this.grid = grid;
+        this.pool = pool;
+        this.rows = grid.rows();
+        this.cols = grid.cols();
+        this.n = grid.size();
+        this.words = (n + 63) >>> 6;
+        open = new long[words];
+        visited = new long[words];
+        frontier = new long[words];
+        next = new long[words];
+        depth = new int[n];
+        list = new int[16];
+        nextList = new int[16];
+    }
+
+    public MazeGrid grid() { return grid; }
+
+    /** Receives every expanded cell level by level, always on the calling thread. */
+    public void setListener(SearchListener listener) { this.listener = listener; }
+    /** Counts each newly reached cell as a push; the peak frontier is the widest level. */
+    public void setStats(SearchStats stats) { this.stats = stats; }
+
+    public SolveResult solve(int start, int goal) {
+        search(start, goal);
+        if (!isSet(visited, goal)) return SolveResult.notFound(expanded);
+        int d = depth[goal];
+        int[] path = new int[d + 1];
+        int cost = 0;
+        for (int cell = goal, i = d; i >= 0; i--) {
+            path[i] = cell;
+            if (i > 0) { cost += grid.cost(cell); cell = previous(cell, i - 1); }
+        }
+        return new SolveResult(true, path, cost, expanded);
+    }
+
+    /** Steps from {@code source} to every cell, or -1 where unreachable. */
+    public int[] hopCounts(int source) {
+        search(source, -1);
+        int[] hops = new int[n];
+        for (int cell = 0; cell < n; cell++) hops[cell] = isSet(visited, cell) ? depth[cell] : -1;
+        return hops;
+    }
+
+    private void search(int start, int goal) {
+        refreshOpen();
+        Arrays.fill(visited, 0L);
+        expanded = 0;
+        visited[start >>> 6] |= 1L << start;
+        depth[start] = 0;
+        list[0] = start;
+        int count = 1, level = 0, remaining = openCount - (isSet(open, start) ? 1 : 0);
+        stats.push(1);
+        boolean dense = false;
+        while (count > 0 && (goal < 0 || !isSet(visited, goal))) {
+            if (count <= SPARSE_LIMIT) {
+                if (dense) { toList(count); dense = false; }
+                count = expandSparse(count, level);
+            } else {
+                if (!dense) { toBitset(count); dense = true; }
+                count = expandDense(count, level, remaining);
+            }
+            stats.pushAll(count, count);
+            remaining -= count;
+            level++;
+        }
+    }
+
+    private int expandSparse(int count, int level) {
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = list[i];
+            expand(cell);
+            int r = cell / cols, c = cell - r * cols;
+            if (r > 0) found = claim(cell - cols, level, found);
+            if (r < rows - 1) found = claim(cell + cols, level, found);
+            if (c > 0) found = claim(cell - 1, level, found);
+            if (c < cols - 1) found = claim(cell + 1, level, found);
+        }
+        int[] t = list; list = nextList; nextList = t;
+        return found;
+    }
+
+    private int claim(int nb, int level, int found) {
+        long bit = 1L << nb;
+        int w = nb >>> 6;
+        if ((open[w] & bit) == 0 || (visited[w] & bit) != 0) return found;
+        visited[w] |= bit;
+        depth[nb] = level + 1;
+        if (found == nextList.length) nextList = Arrays.copyOf(nextList, found << 1);
+        nextList[found] = nb;
+        return found + 1;
+    }
+
+    private int expandDense(int count, int level, int remaining) {
+        expanded += count;
+        if (listener != null) forEachBit(frontier, listener);
+        boolean bottomUp = (long) count * BOTTOM_UP_RATIO > remaining;
+        if (!bottomUp) Arrays.fill(next, 0L);
+        int found = pool.invoke(new Sweep(0, words, level, bottomUp));
+        long[] t = frontier; frontier = next; next = t;
+        return found;
+    }
+
+    /** One level over bitset words {@code [lo, hi)}; returns the number of cells newly reached. */
+    private final class Sweep extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo, hi, level;
+        private final boolean bottomUp;
+
+        Sweep(int lo, int hi, int level, boolean bottomUp) { this.lo = lo; this.hi = hi; this.level = level; this.bottomUp = bottomUp; }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo > LEAF_WORDS) {
+                int mid = (lo + hi) >>> 1;
+                Sweep left = new Sweep(lo, mid, level, bottomUp);
+                left.fork();
+                int right = new Sweep(mid, hi, level, bottomUp).compute();
+                return left.join() + right;
+            }
+            return bottomUp ? bottomUp() : topDown();
+        }
+
+        private int topDown() {
+            int found = 0;
+            for (int w = lo; w < hi; w++) {
+                for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                    int cell = (w << 6) + Long.numberOfTrailingZeros(bits), r = cell / cols, c = cell - r * cols;
+                    if (r > 0 && claimAtomic(cell - cols)) found++;
+                    if (r < rows - 1 && claimAtomic(cell + cols)) found++;
+                    if (c > 0 && claimAtomic(cell - 1)) found++;
+                    if (c < cols - 1 && claimAtomic(cell + 1)) found++;
+                }
+            }
+            return found;
+        }
+
+        private boolean claimAtomic(int nb) {
+            long bit = 1L << nb;
+            int w = nb >>> 6;
+            if ((open[w] & bit) == 0 || ((long) WORDS.getOpaque(visited, w) & bit) != 0) return false;
+            if (((long) WORDS.getAndBitwiseOr(visited, w, bit) & bit) != 0) return false;
+            WORDS.getAndBitwiseOr(next, w, bit);
+            depth[nb] = level + 1;
+            return true;
+        }
+
+        /** Each leaf writes only its own words of {@code visited} and {@code next}. */
+        private int bottomUp() {
+            int found = 0;
+            for (int w = lo; w < hi; w++) {
+                long reached = 0;
+                for (long bits = open[w] & ~visited[w]; bits != 0; bits &= bits - 1) {
+                    int cell = (w << 6) + Long.numberOfTrailingZeros(bits), r = cell / cols, c = cell - r * cols;
+                    if ((r > 0 && isSet(frontier, cell - cols)) || (r < rows - 1 && isSet(frontier, cell + cols))
+                            || (c > 0 && isSet(frontier, cell - 1)) || (c < cols - 1 && isSet(frontier, cell + 1))) {
+                        reached |= 1L << cell;
+                        depth[cell] = level + 1;
+                        found++;
+                    }
+                }
+                visited[w] |= reached;
+                next[w] = reached;
+            }
+            return found;
+        }
+    }
+
+    private void toBitset(int count) {
+        Arrays.fill(frontier, 0L);
+        for (int i = 0; i < count; i++) frontier[list[i] >>> 6] |= 1L << list[i];
+    }
+
+    private void toList(int count) {
+        if (list.length < count) list = new int[count];
+        int k = 0;
+        for (int w = 0; w < words; w++) {
+            for (long bits = frontier[w]; bits != 0; bits &= bits - 1) list[k++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+
+    private void forEachBit(long[] bits, SearchListener sink) {
+        for (int w = 0; w < words; w++) {
+            for (long b = bits[w]; b != 0; b &= b - 1) sink.onExpand((w << 6) + Long.numberOfTrailingZeros(b));
+        }
+    }
+
+    /** A neighbour of {@code cell} reached at {@code d}; exists for every reached cell except the start. */
+    private int previous(int cell, int d) {
+        int r = cell / cols, c = cell - r * cols;
+        if (r > 0 && reachedAt(cell - cols, d)) return cell - cols;
+        if (r < rows - 1 && reachedAt(cell + cols, d)) return cell + cols;
+        if (c > 0 && reachedAt(cell - 1, d)) return cell - 1;
+        return cell + 1;
+    }
+
+    private boolean reachedAt(int cell, int d) { return isSet(visited, cell) && depth[cell] == d; }
+
+    private void expand(int cell) {
+        expanded++;
+        if (listener != null) listener.onExpand(cell);
+    }
+
+    private void refreshOpen() {
+        if (knownModCount == grid.modCount()) return;
+        Arrays.fill(open, 0L);
+        openCount = 0;
+        for (int cell = 0; cell < n; cell++) if (grid.isOpen(cell)) { open[cell >>> 6] |= 1L << cell; openCount++; }
+        knownModCount = grid.modCount();
+    }
+
+    private static boolean isSet(long[] bits, int i) { return (bits[i >>> 6] & (1L << i)) != 0; }
+}
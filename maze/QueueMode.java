@@ -0,0 +1,8 @@
+package maze;
+
+/** Frontier used by Dijkstra and A*: AUTO picks the bucket queue whenever terrain costs are small. */
+public enum QueueMode {
+    AUTO,
+    HEAP,
+    BUCKET
+}
@@ -0,0 +1,9 @@
+package maze;
+
+import java.io.IOException;
+
+/** Receives a generated maze one row at a time, top to bottom; {@code row} is reused between calls. */
+@FunctionalInterface
+public interface RowSink {
+    void accept(int r, byte[] row) throws IOException;
+}
@@ -0,0 +1,44 @@
+package maze;
+
+import javax.management.ConstructorParameters;
+
+/** Aggregates over the most recent runs of one algorithm, as exposed through {@link SolverMetricsMXBean}. */
+public final class RunSummary {
+    private final String algorithm;
+    private final long totalRuns;
+    private final int windowRuns, found;
+    private final double meanWallMillis, maxWallMillis, meanCpuMillis;
+    private final double meanExpanded, meanPushed, meanStalePops;
+    private final int maxPeakFrontier;
+
+    @ConstructorParameters({"algorithm", "totalRuns", "windowRuns", "found", "meanWallMillis", "maxWallMillis",
+            "meanCpuMillis", "meanExpanded", "meanPushed", "meanStalePops", "maxPeakFrontier"})
+    public RunSummary(String algorithm, long totalRuns, int windowRuns, int found, double meanWallMillis, double maxWallMillis,
+                      double meanCpuMillis, double meanExpanded, double meanPushed, double meanStalePops, int maxPeakFrontier) {
+        this.algorithm = algorithm;
+        this.totalRuns = totalRuns;
+        this.windowRuns = windowRuns;
+        this.found = found;
+        this.meanWallMillis = meanWallMillis;
+        this.maxWallMillis = maxWallMillis;
+        this.meanCpuMillis = meanCpuMillis;
+        this.meanExpanded = meanExpanded;
+        this.meanPushed = meanPushed;
+        this.meanStalePops = meanStalePops;
+        this.maxPeakFrontier = maxPeakFrontier;
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    /** Runs since start-up or the last reset; the other figures cover only the last {@code windowRuns}. */
+    public long getTotalRuns() { return totalRuns; }
+    public int getWindowRuns() { return windowRuns; }
+    public int getFound() { return found; }
+    public double getMeanWallMillis() { return meanWallMillis; }
+    public double getMaxWallMillis() { return maxWallMillis; }
+    /** -1 when thread CPU time is unavailable. */
+    public double getMeanCpuMillis() { return meanCpuMillis; }
+    public double getMeanExpanded() { return meanExpanded; }
+    public double getMeanPushed() { return meanPushed; }
+    public double getMeanStalePops() { return meanStalePops; }
+    public int getMaxPeakFrontier() { return maxPeakFrontier; }
+}
@@ -0,0 +1,7 @@
+package maze;
+
+/** Receives every cell a solver expands, in expansion order. */
+@FunctionalInterface
+public interface SearchListener {
+    void onExpand(int cell);
+}
@@ -0,0 +1,29 @@
+package maze;
+
+/**
+ * Work counters filled in by a search as it runs: frontier pushes, stale pops (entries skipped because a
+ * cheaper copy was already settled) and the largest frontier seen. Reset by the owning solver per query.
+ */
+public final class SearchStats {
+    private int pushed, stalePops, peakFrontier;
+
+    public int pushed() { return pushed; }
+    public int stalePops() { return stalePops; }
+    public int peakFrontier() { return peakFrontier; }
+
+    void reset() { pushed = 0; stalePops = 0; peakFrontier = 0; }
+
+    /** One entry added to a frontier that now holds {@code frontierSize} entries. */
+    void push(int frontierSize) {
+        pushed++;
+        if (frontierSize > peakFrontier) peakFrontier = frontierSize;
+    }
+
+    /** {@code count} entries added at once, e.g. a whole BFS level, leaving {@code frontierSize} queued. */
+    void pushAll(int count, int frontierSize) {
+        pushed += count;
+        if (frontierSize > peakFrontier) peakFrontier = frontierSize;
+    }
+
+    void stale() { stalePops++; }
+}
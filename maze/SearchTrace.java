@@ -0,0 +1,14 @@
+package maze;
+
+/** Immutable record of one query: every expanded cell in order, followed by the result path. */
+public final class SearchTrace {
+    public final Algorithm algorithm;
+    public final int[] expansions;
+    public final SolveResult result;
+
+    public SearchTrace(Algorithm algorithm, int[] expansions, SolveResult result) {
+        this.algorithm = algorithm;
+        this.expansions = expansions;
+        this.result = result;
+    }
+}
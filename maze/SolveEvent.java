@@ -0,0 +1,27 @@
+package maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** JFR event committed once per measured query (see {@link SolveProbe}); free when no recording is running. */
+@Name("maze.Solve")
+@Label("Maze Solve")
+@Category("Maze")
+@Description("One maze query with its search counters")
+final class SolveEvent extends Event {
+    @Label("Algorithm") String algorithm;
+    @Label("Rows") int rows;
+    @Label("Columns") int cols;
+    @Label("Found") boolean found;
+    @Label("Steps") int steps;
+    @Label("Cost") int cost;
+    @Label("Nodes Expanded") int expanded;
+    @Label("Nodes Pushed") int pushed;
+    @Label("Stale Pops") int stalePops;
+    @Label("Peak Frontier") int peakFrontier;
+    @Label("CPU Time") @Timespan(Timespan.NANOSECONDS) long cpuTime;
+}
@@ -0,0 +1,24 @@
+package maze;
+
+/** Everything measured about one query: a {@link MazeSolver#solve} call, an LPA* replan or a flow-field route. */
+public final class SolveMetrics {
+    public final Algorithm algorithm;
+    public final boolean found;
+    public final int steps, cost;
+    public final int expanded, pushed, stalePops, peakFrontier;
+    /** Wall-clock and calling-thread CPU time; CPU is -1 where the JVM cannot measure it. */
+    public final long wallNanos, cpuNanos;
+
+    public SolveMetrics(Algorithm algorithm, SolveResult result, SearchStats stats, long wallNanos, long cpuNanos) {
+        this.algorithm = algorithm;
+        this.found = result.found;
+        this.steps = result.steps;
+        this.cost = result.cost;
+        this.expanded = result.expanded;
+        this.pushed = stats.pushed();
+        this.stalePops = stats.stalePops();
+        this.peakFrontier = stats.peakFrontier();
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+    }
+}
@@ -0,0 +1,43 @@
+package maze;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures one query: wall and calling-thread CPU time around it, then a {@code maze.Solve} JFR event and a
+ * {@link SolverMetrics#global()} record. Shared by {@link MazeSolver}, {@link IncrementalPlanner} and
+ * {@link FlowField} so every engine reports the same way.
+ */
+final class SolveProbe {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final SolveEvent event = new SolveEvent();
+    private final long cpu0, t0;
+
+    private SolveProbe() {
+        event.begin();
+        cpu0 = cpuTime();
+        t0 = System.nanoTime();
+    }
+
+    static SolveProbe start() { return new SolveProbe(); }
+
+    SolveMetrics finish(Algorithm algo, MazeGrid grid, SolveResult result, SearchStats stats) {
+        long wall = System.nanoTime() - t0, cpu = cpu0 < 0 ? -1 : cpuTime() - cpu0;
+        event.end();
+        SolveMetrics run = new SolveMetrics(algo, result, stats, wall, cpu);
+        if (event.shouldCommit()) {
+            event.algorithm = algo.label(); event.rows = grid.rows(); event.cols = grid.cols();
+            event.found = result.found; event.steps = result.steps; event.cost = result.cost;
+            event.expanded = result.expanded; event.pushed = stats.pushed(); event.stalePops = stats.stalePops();
+            event.peakFrontier = stats.peakFrontier(); event.cpuTime = cpu;
+            event.commit();
+        }
+        SolverMetrics.global().record(run);
+        return run;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+}
@@ -0,0 +1,20 @@
+package maze;
+
+/** Outcome of one query: the cell path from start to exit, its step count and terrain cost (start cell excluded). */
+public final class SolveResult {
+    public final boolean found;
+    public final int[] path;
+    public final int steps;
+    public final int cost;
+    public final int expanded;
+
+    public SolveResult(boolean found, int[] path, int cost, int expanded) {
+        this.found = found;
+        this.path = path;
+        this.steps = found ? path.length - 1 : 0;
+        this.cost = cost;
+        this.expanded = expanded;
+    }
+
+    public static SolveResult notFound(int expanded) { return new SolveResult(false, new int[0], 0, expanded); }
+}
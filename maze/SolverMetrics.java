@@ -0,0 +1,92 @@
+package maze;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Rolling per-algorithm aggregates over the last {@link #WINDOW} runs of every {@link MazeSolver} in the JVM.
+ * The shared instance registers itself with the platform MBean server on first use.
+ */
+public final class SolverMetrics implements SolverMetricsMXBean {
+    public static final String OBJECT_NAME = "maze:type=SolverMetrics";
+    public static final int WINDOW = 256;
+
+    private static final SolverMetrics GLOBAL = register(new SolverMetrics());
+
+    private final Map<Algorithm, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder totalRuns = new LongAdder();
+
+    public static SolverMetrics global() { return GLOBAL; }
+
+    public void record(SolveMetrics run) {
+        windows.computeIfAbsent(run.algorithm, a -> new Window()).add(run);
+        totalRuns.increment();
+    }
+
+    /** Aggregates for {@code algo}, or null before its first run. */
+    public RunSummary summary(Algorithm algo) {
+        Window w = windows.get(algo);
+        return w == null ? null : w.summarize(algo.label());
+    }
+
+    @Override public int getWindow() { return WINDOW; }
+    @Override public long getTotalRuns() { return totalRuns.sum(); }
+
+    @Override
+    public Map<String, RunSummary> getSummaries() {
+        Map<String, RunSummary> out = new TreeMap<>();
+        windows.forEach((algo, w) -> out.put(algo.label(), w.summarize(algo.label())));
+        return out;
+    }
+
+    @Override
+    public void reset() {
+        windows.clear();
+        totalRuns.reset();
+    }
+
+    private static SolverMetrics register(SolverMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // Already registered by another class loader, or JMX is locked down: keep collecting in-process.
+        }
+        return metrics;
+    }
+
+    /** Ring buffer of the last {@link #WINDOW} runs of one algorithm. */
+    private static final class Window {
+        private final SolveMetrics[] runs = new SolveMetrics[WINDOW];
+        private int next, size;
+        private long total;
+
+        synchronized void add(SolveMetrics run) {
+            runs[next] = run;
+            next = (next + 1) % WINDOW;
+            if (size < WINDOW) size++;
+            total++;
+        }
+
+        synchronized RunSummary summarize(String label) {
+            int found = 0, peak = 0;
+            double wall = 0, maxWall = 0, cpu = 0, expanded = 0, pushed = 0, stale = 0;
+            boolean cpuKnown = true;
+            for (int i = 0; i < size; i++) {
+                SolveMetrics m = runs[i];
+                if (m.found) found++;
+                wall += m.wallNanos; maxWall = Math.max(maxWall, m.wallNanos);
+                if (m.cpuNanos < 0) cpuKnown = false; else cpu += m.cpuNanos;
+                expanded += m.expanded; pushed += m.pushed; stale += m.stalePops;
+                peak = Math.max(peak, m.peakFrontier);
+            }
+            int n = Math.max(1, size);
+            return new RunSummary(label, total, size, found, wall / n / 1e6, maxWall / 1e6, cpuKnown ? cpu / n / 1e6 : -1,
+                    expanded / n, pushed / n, stale / n, peak);
+        }
+    }
+}
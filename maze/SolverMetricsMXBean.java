@@ -0,0 +1,13 @@
+package maze;
+
+import java.util.Map;
+
+/** JMX view of {@link SolverMetrics}, registered as {@value SolverMetrics#OBJECT_NAME}. */
+public interface SolverMetricsMXBean {
+    /** Number of recent runs per algorithm the summaries are computed over. */
+    int getWindow();
+    long getTotalRuns();
+    /** Rolling aggregates keyed by algorithm label. */
+    Map<String, RunSummary> getSummaries();
+    void reset();
+}
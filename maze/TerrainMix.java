@@ -0,0 +1,19 @@
+package maze;
+
+/** Share of open cells the generator turns into grass, mud and water (the remainder). */
+public enum TerrainMix {
+    BALANCED(0.5, 0.3),
+    GRASS(1.0, 0.0),
+    SWAMP(0.2, 0.4);
+
+    private final double grass;
+    private final double mud;
+
+    TerrainMix(double grass, double mud) { this.grass = grass; this.mud = mud; }
+
+    public int pick(double chance) {
+        if (chance < grass) return MazeGrid.TYPE_GRASS;
+        if (chance < grass + mud) return MazeGrid.TYPE_MUD;
+        return MazeGrid.TYPE_WATER;
+    }
+}
@@ -0,0 +1,19 @@
+package maze;
+
+import java.util.Arrays;
+
+/** Collects expanded cells into a growable int array. */
+public final class TraceRecorder implements SearchListener {
+    private int[] cells = new int[256];
+    private int size;
+
+    @Override
+    public void onExpand(int cell) {
+        if (size == cells.length) cells = Arrays.copyOf(cells, size << 1);
+        cells[size++] = cell;
+    }
+
+    public int size() { return size; }
+    public void reset() { size = 0; }
+    public int[] toArray() { return Arrays.copyOf(cells, size); }
+}
@@ -0,0 +1,45 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Parallel batches, including ALT queries sharing one landmark build, agree with Dijkstra before and after edits. */
+class BatchSolverTest {
+    private static final Algorithm[] MIX = {Algorithm.DIJKSTRA, Algorithm.ASTAR, Algorithm.ALT, Algorithm.CORRIDOR_ASTAR, Algorithm.BI_ASTAR};
+
+    @Test
+    void batchesMatchDijkstraAcrossEdits() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long seed = 0; seed < 6; seed++) {
+                Random rnd = new Random(seed);
+                MazeGrid grid = TestMazes.maze(seed, 81, 81);
+                BatchSolver batch = new BatchSolver(grid, 1024, pool);
+                for (int round = 0; round < 3; round++) {
+                    List<BatchSolver.Query> queries = new ArrayList<>();
+                    for (int q = 0; q < 60; q++) {
+                        queries.add(new BatchSolver.Query(TestMazes.openCell(grid, rnd), TestMazes.openCell(grid, rnd), MIX[q % MIX.length]));
+                    }
+                    List<SolveResult> results = batch.solveAll(queries);
+                    for (int q = 0; q < queries.size(); q++) {
+                        BatchSolver.Query query = queries.get(q);
+                        int expected = TestMazes.dijkstraCost(grid, query.start, query.exit);
+                        assertEquals(expected, results.get(q).found ? results.get(q).cost : -1, query.algorithm + " round " + round);
+                    }
+                    int cell = rnd.nextInt(grid.size());
+                    grid.set(cell, 1 + rnd.nextInt(3));
+                }
+                assertTrue(batch.misses() > 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** HPA* paths are valid, never cheaper than Dijkstra, and exact for neighbours across a cluster border. */
+class ClusterHierarchyTest {
+
+    @Test
+    void neighboursAcrossBorderTakeTheDirectStep() {
+        for (long seed = 0; seed < 100; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = scatteredWalls(rnd, 20 + rnd.nextInt(40), 20 + rnd.nextInt(40));
+            ClusterHierarchy hpa = new ClusterHierarchy(grid, 4 + rnd.nextInt(8));
+            int size = hpa.clusterSize();
+            for (int r = 0; r < grid.rows(); r++) {
+                for (int c = size - 1; c + 1 < grid.cols(); c += size) {
+                    int s = grid.index(r, c), t = s + 1;
+                    if (!grid.isOpen(s) || !grid.isOpen(t)) continue;
+                    SolveResult res = hpa.solve(s, t, null);
+                    assertEquals(grid.cost(t), res.cost, "seed " + seed + " " + s + "->" + t);
+                    TestMazes.assertValidPath(grid, s, t, res);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nearbyQueriesAreExactWhenTheOptimumStaysInTheirClusters() {
+        for (long seed = 0; seed < 100; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = scatteredWalls(rnd, 39, 30);
+            ClusterHierarchy hpa = new ClusterHierarchy(grid, 8);
+            for (int q = 0; q < 30; q++) {
+                int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+                int sr = grid.row(s) / 8, sc = grid.col(s) / 8, tr = grid.row(t) / 8, tc = grid.col(t) / 8;
+                if (Math.abs(sr - tr) > 1 || Math.abs(sc - tc) > 1) continue;
+                SolveResult exact = new MazeSolver(grid).solveDijkstra(s, t);
+                if (!exact.found || !inBox(grid, exact.path, Math.min(sr, tr) * 8, Math.min(sc, tc) * 8, (Math.max(sr, tr) + 1) * 8, (Math.max(sc, tc) + 1) * 8)) continue;
+                assertEquals(exact.cost, hpa.solve(s, t, null).cost, "seed " + seed + " " + s + "->" + t);
+            }
+        }
+    }
+
+    @Test
+    void randomQueriesAreValidAndNeverBeatDijkstra() {
+        for (long seed = 0; seed < 60; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = seed % 3 == 0 ? scatteredWalls(rnd, 30 + rnd.nextInt(40), 30 + rnd.nextInt(40))
+                    : TestMazes.maze(seed, 31 + rnd.nextInt(50), 31 + rnd.nextInt(50));
+            MazeSolver solver = new MazeSolver(grid);
+            for (int q = 0; q < 20; q++) {
+                if (q % 5 == 4) {
+                    int cell = rnd.nextInt(grid.size());
+                    grid.set(cell, rnd.nextInt(4));
+                    solver.cellChanged(cell);
+                }
+                int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+                SolveResult r = solver.solve(Algorithm.HPA_STAR, s, t);
+                int exact = TestMazes.dijkstraCost(grid, s, t);
+                assertEquals(exact >= 0, r.found, "seed " + seed + " " + s + "->" + t);
+                if (!r.found) continue;
+                TestMazes.assertValidPath(grid, s, t, r);
+                assertTrue(r.cost >= exact);
+            }
+        }
+    }
+
+    private static MazeGrid scatteredWalls(Random rnd, int rows, int cols) {
+        MazeGrid grid = new MazeGrid(rows, cols);
+        for (int cell = 0; cell < grid.size(); cell++) grid.set(cell, rnd.nextDouble() < 0.3 ? MazeGrid.TYPE_WALL : 1 + rnd.nextInt(3));
+        grid.set(0, MazeGrid.TYPE_GRASS); // at least one open cell to query from
+        return grid;
+    }
+
+    private static boolean inBox(MazeGrid grid, int[] path, int r0, int c0, int r1, int c1) {
+        for (int cell : path) {
+            int r = grid.row(cell), c = grid.col(cell);
+            if (r < r0 || r >= r1 || c < c0 || c >= c1) return false;
+        }
+        return true;
+    }
+}
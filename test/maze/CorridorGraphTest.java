@@ -0,0 +1,74 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Corridor Dijkstra and A* against cell-level Dijkstra, including endpoints on junctions and after edits. */
+class CorridorGraphTest {
+    private static final Algorithm[] CORRIDOR = {Algorithm.CORRIDOR_DIJKSTRA, Algorithm.CORRIDOR_ASTAR};
+
+    /** The goal is a junction on the start's own corridor, which used to overflow the start's portal. */
+    @Test
+    void goalJunctionOnStartCorridor() {
+        MazeGrid grid = new EllerGenerator(new Random(253)).generate(30, 6, 1, 1, 27, 3);
+        for (Algorithm algo : CORRIDOR) {
+            SolveResult r = new MazeSolver(grid).solve(algo, 151, 69);
+            assertEquals(TestMazes.dijkstraCost(grid, 151, 69), r.cost, algo.label());
+            TestMazes.assertValidPath(grid, 151, 69, r);
+        }
+    }
+
+    @Test
+    void randomQueriesOnMazesMatchDijkstra() {
+        for (long seed = 0; seed < 200; seed++) {
+            Random rnd = new Random(seed);
+            check(TestMazes.maze(seed, 5 + rnd.nextInt(40), 5 + rnd.nextInt(40)), rnd, "maze seed " + seed);
+        }
+    }
+
+    /** Open-field grids with scattered walls have loops, junction clusters and corridors without junctions. */
+    @Test
+    void randomQueriesOnScatteredWallsMatchDijkstra() {
+        for (long seed = 0; seed < 300; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = new MazeGrid(3 + rnd.nextInt(30), 3 + rnd.nextInt(30));
+            double walls = 0.2 + rnd.nextDouble() * 0.4;
+            for (int cell = 0; cell < grid.size(); cell++) grid.set(cell, rnd.nextDouble() < walls ? MazeGrid.TYPE_WALL : 1 + rnd.nextInt(3));
+            grid.set(0, MazeGrid.TYPE_GRASS); // at least one open cell to query from
+            check(grid, rnd, "grid seed " + seed);
+        }
+    }
+
+    @Test
+    void resolvesAfterEditsMatchDijkstra() {
+        for (long seed = 0; seed < 100; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = TestMazes.maze(seed, 9 + rnd.nextInt(30), 9 + rnd.nextInt(30));
+            MazeSolver solver = new MazeSolver(grid);
+            for (int edit = 0; edit < 10; edit++) {
+                int cell = rnd.nextInt(grid.size());
+                grid.set(cell, rnd.nextInt(4));
+                solver.cellChanged(cell);
+                int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+                for (Algorithm algo : CORRIDOR) assertQuery(grid, solver, algo, s, t, "seed " + seed + " edit " + edit);
+            }
+        }
+    }
+
+    private static void check(MazeGrid grid, Random rnd, String where) {
+        MazeSolver solver = new MazeSolver(grid);
+        for (int q = 0; q < 20; q++) {
+            int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+            for (Algorithm algo : CORRIDOR) assertQuery(grid, solver, algo, s, t, where);
+        }
+    }
+
+    private static void assertQuery(MazeGrid grid, MazeSolver solver, Algorithm algo, int s, int t, String where) {
+        SolveResult r = solver.solve(algo, s, t);
+        assertEquals(TestMazes.dijkstraCost(grid, s, t), r.found ? r.cost : -1, () -> algo + " " + where + " " + s + "->" + t);
+        if (r.found) TestMazes.assertValidPath(grid, s, t, r);
+    }
+}
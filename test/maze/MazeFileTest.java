@@ -0,0 +1,115 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Round trips, save over the file a grid is mapped from, header validation and file permissions. */
+class MazeFileTest {
+
+    @Test
+    void roundTripAndSaveOverSelf() throws IOException {
+        Path dir = Files.createTempDirectory("mazefile");
+        try {
+            MazeGrid grid = TestMazes.maze(4, 101, 101);
+            int cost = TestMazes.dijkstraCost(grid, grid.index(1, 1), grid.index(99, 99));
+            Path file = dir.resolve("m.maze");
+            MazeFile.save(file, grid, 4, 1, 1, 99, 99);
+
+            MazeFile loaded = MazeFile.load(file);
+            assertTrue(loaded.grid.isMapped());
+            assertEquals(cost, TestMazes.dijkstraCost(loaded.grid, loaded.grid.index(1, 1), loaded.grid.index(99, 99)));
+            MazeFile.save(file, loaded.grid, 4, 1, 1, 99, 99);
+            assertEquals(cost, TestMazes.dijkstraCost(loaded.grid, loaded.grid.index(1, 1), loaded.grid.index(99, 99)));
+
+            loaded.grid.set(1, 2, MazeGrid.TYPE_WATER);
+            assertFalse(loaded.grid.isMapped());
+            assertEquals(cost, TestMazes.dijkstraCost(MazeFile.load(file).grid, grid.index(1, 1), grid.index(99, 99)), "edit leaked into the file");
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    void rejectsCorruptHeaders() throws IOException {
+        Path dir = Files.createTempDirectory("mazefile");
+        try {
+            Path file = dir.resolve("m.maze");
+            MazeFile.save(file, TestMazes.maze(2, 21, 21), 2, 1, 1, 19, 19);
+            byte[] good = Files.readAllBytes(file);
+            for (int offset : new int[]{8, 12, 32, 36}) {
+                byte[] bad = good.clone();
+                bad[offset + 3] = (byte) 0x7f;
+                Files.write(file, bad);
+                assertThrows(IOException.class, () -> MazeFile.load(file));
+            }
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    @Test
+    void savedFilesKeepOrdinaryPermissions() throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) return;
+        Path dir = Files.createTempDirectory("mazefile");
+        try {
+            Path file = dir.resolve("m.maze"), plain = Files.createFile(dir.resolve("plain"));
+            MazeFile.save(file, TestMazes.maze(2, 21, 21), 2, 1, 1, 19, 19);
+            assertEquals(Files.getPosixFilePermissions(plain), Files.getPosixFilePermissions(file), "new file");
+
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-r-----"));
+            MazeFile.save(file, TestMazes.maze(2, 21, 21), 2, 1, 1, 19, 19);
+            assertEquals(PosixFilePermissions.fromString("rw-r-----"), Files.getPosixFilePermissions(file), "replaced file");
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    /** Readers on other threads keep working while the first edit moves a mapped grid to the heap. */
+    @Test
+    void firstEditIsSafeForConcurrentReaders() throws Exception {
+        Path dir = Files.createTempDirectory("mazefile");
+        try {
+            Path file = dir.resolve("m.maze");
+            MazeFile.save(file, TestMazes.maze(6, 201, 201), 6, 1, 1, 199, 199);
+            for (int round = 0; round < 20; round++) {
+                MazeGrid grid = MazeFile.load(file).grid;
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                Thread reader = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 20; i++) new MazeSolver(grid).solveBFS(grid.index(1, 1), grid.index(199, 199));
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                });
+                reader.start();
+                Random rnd = new Random(round);
+                for (int i = 0; i < 50; i++) grid.set(grid.index(1 + rnd.nextInt(199), 1 + rnd.nextInt(199)), 1 + rnd.nextInt(3));
+                reader.join();
+                assertNull(failure.get());
+            }
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+}
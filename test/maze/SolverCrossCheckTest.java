@@ -0,0 +1,100 @@
+package maze;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Randomized checks of every exact solver against plain cell-level Dijkstra and BFS. */
+class SolverCrossCheckTest {
+    private static final Algorithm[] EXACT = {Algorithm.DIJKSTRA, Algorithm.ASTAR, Algorithm.BI_DIJKSTRA, Algorithm.BI_ASTAR,
+            Algorithm.CORRIDOR_DIJKSTRA, Algorithm.CORRIDOR_ASTAR, Algorithm.ALT, Algorithm.LPA_STAR, Algorithm.FLOW_FIELD};
+
+    @Test
+    void exactSolversMatchDijkstraCost() {
+        for (long seed = 0; seed < 40; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = TestMazes.maze(seed, 21 + rnd.nextInt(40), 21 + rnd.nextInt(40));
+            MazeSolver solver = new MazeSolver(grid);
+            for (int q = 0; q < 10; q++) {
+                int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+                int expected = TestMazes.dijkstraCost(grid, s, t);
+                for (Algorithm algo : EXACT) {
+                    SolveResult r = solver.solve(algo, s, t);
+                    String where = algo + " seed " + seed + " " + s + "->" + t;
+                    assertEquals(expected, r.found ? r.cost : -1, where);
+                    if (r.found) TestMazes.assertValidPath(grid, s, t, r);
+                }
+            }
+        }
+    }
+
+    @Test
+    void bucketAndHeapQueuesAgree() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = TestMazes.maze(seed, 41, 41);
+            MazeSolver heap = new MazeSolver(grid), buckets = new MazeSolver(grid);
+            heap.setQueueMode(QueueMode.HEAP);
+            buckets.setQueueMode(QueueMode.BUCKET);
+            for (int q = 0; q < 10; q++) {
+                int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+                assertEquals(heap.solveDijkstra(s, t).cost, buckets.solveDijkstra(s, t).cost);
+                assertEquals(heap.solveAStar(s, t).cost, buckets.solveAStar(s, t).cost);
+            }
+        }
+    }
+
+    @Test
+    void breadthFirstSolversMatchSequentialBfsSteps() {
+        for (long seed = 0; seed < 30; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = TestMazes.maze(seed, 31 + rnd.nextInt(60), 31 + rnd.nextInt(60));
+            MazeSolver solver = new MazeSolver(grid);
+            for (int q = 0; q < 10; q++) {
+                int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+                SolveResult bfs = solver.solveBFS(s, t), parallel = solver.solveParallelBFS(s, t);
+                assertEquals(bfs.found, parallel.found);
+                assertEquals(bfs.steps, parallel.steps, "seed " + seed + " " + s + "->" + t);
+                if (parallel.found) TestMazes.assertValidPath(grid, s, t, parallel);
+            }
+        }
+    }
+
+    @Test
+    void dfsFindsSomeValidPath() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = TestMazes.maze(seed, 41, 41);
+            MazeSolver solver = new MazeSolver(grid);
+            solver.setRandom(new Random(seed));
+            int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+            SolveResult r = solver.solveDFS(s, t);
+            assertTrue(r.found);
+            TestMazes.assertValidPath(grid, s, t, r);
+        }
+    }
+
+    @Test
+    void resolvesAfterEditsMatchDijkstra() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            MazeGrid grid = TestMazes.maze(seed, 41, 41);
+            MazeSolver solver = new MazeSolver(grid);
+            int s = TestMazes.openCell(grid, rnd), t = TestMazes.openCell(grid, rnd);
+            for (int edit = 0; edit < 15; edit++) {
+                int cell = rnd.nextInt(grid.size());
+                if (cell == s || cell == t) continue;
+                grid.set(cell, rnd.nextInt(4));
+                solver.cellChanged(cell);
+                int expected = TestMazes.dijkstraCost(grid, s, t);
+                for (Algorithm algo : EXACT) {
+                    SolveResult r = solver.solve(algo, s, t);
+                    assertEquals(expected, r.found ? r.cost : -1, algo + " seed " + seed + " after edit " + edit);
+                }
+            }
+        }
+    }
+}
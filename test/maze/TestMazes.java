@@ -0,0 +1,48 @@
+package maze;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Seeded mazes, random queries and path checks shared by the solver tests. */
+final class TestMazes {
+    private TestMazes() {}
+
+    /** A Prim maze for even seeds and an Eller maze for odd ones, so both generators are covered. */
+    static MazeGrid maze(long seed, int rows, int cols) {
+        int er = rows - 2 - (rows % 2 == 0 ? 1 : 0), ec = cols - 2 - (cols % 2 == 0 ? 1 : 0);
+        return seed % 2 == 0
+                ? new MazeGenerator(new Random(seed)).generate(rows, cols, 1, 1, er, ec)
+                : new EllerGenerator(new Random(seed)).generate(rows, cols, 1, 1, er, ec);
+    }
+
+    /** A uniformly random open cell. */
+    static int openCell(MazeGrid grid, Random rnd) {
+        int cell;
+        do cell = rnd.nextInt(grid.size()); while (!grid.isOpen(cell));
+        return cell;
+    }
+
+    /** Plain cell-level Dijkstra cost, or -1 when {@code goal} is unreachable. */
+    static int dijkstraCost(MazeGrid grid, int start, int goal) {
+        SolveResult r = new MazeSolver(grid).solveDijkstra(start, goal);
+        return r.found ? r.cost : -1;
+    }
+
+    /** Asserts {@code r} is a walk of open, 4-adjacent cells from start to goal whose entry costs add up to {@code r.cost}. */
+    static void assertValidPath(MazeGrid grid, int start, int goal, SolveResult r) {
+        int[] path = r.path;
+        assertEquals(start, path[0], "path start");
+        assertEquals(goal, path[path.length - 1], "path end");
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            int a = path[i - 1], b = path[i];
+            int dr = Math.abs(grid.row(a) - grid.row(b)), dc = Math.abs(grid.col(a) - grid.col(b));
+            assertTrue(dr + dc == 1, "cells " + a + " and " + b + " are not adjacent");
+            assertTrue(grid.isOpen(b), "path enters wall " + b);
+            cost += grid.cost(b);
+        }
+        assertEquals(cost, r.cost, "summed path cost");
+    }
+}